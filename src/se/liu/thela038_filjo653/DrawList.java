@@ -0,0 +1,110 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.sprites.Sprite;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The sprites of a frame, in the order they are drawn. The game thread fills the list after every update, and the drawing thread draws
+ * the latest complete frame. Three arrays are rotated between the threads, one being filled, one ready to be drawn and one being drawn,
+ * so neither thread has to wait for the other and no lists are copied or allocated per frame.
+ */
+public class DrawList
+{
+    private static final int INITIAL_CAPACITY = 256;
+
+    private Sprite[] filling = new Sprite[INITIAL_CAPACITY];
+    private int fillingSize = 0;
+    private Sprite[] ready = new Sprite[INITIAL_CAPACITY];
+    private int readySize = 0;
+    private boolean readyIsNew = false;
+    private Sprite[] drawing = new Sprite[INITIAL_CAPACITY];
+    private int drawingSize = 0;
+    // Frames are numbered from 1 as they are published, 0 means no frame
+    private long publishedFrames = 0;
+    private long readyFrame = 0;
+    private long drawingFrame = 0;
+
+    /**
+     * Adds a sprite to the frame that is being filled. Should only be called from the game thread.
+     */
+    public void add(Sprite sprite) {
+	if (fillingSize == filling.length) {
+	    filling = Arrays.copyOf(filling, fillingSize * 2);
+	}
+	filling[fillingSize++] = sprite;
+    }
+
+    /**
+     * Adds all sprites in a list to the frame that is being filled. Should only be called from the game thread.
+     */
+    public void addAll(List<? extends Sprite> sprites) {
+	// Indexing avoids creating an iterator
+	for (int i = 0; i < sprites.size(); i++) {
+	    add(sprites.get(i));
+	}
+    }
+
+    /**
+     * Makes the filled frame the one that is drawn next, and starts filling a new frame. Should only be called from the game thread.
+     */
+    public synchronized void publish() {
+	Sprite[] published = filling;
+	int publishedSize = fillingSize;
+	filling = ready;
+	// Sprites left from older frames are cleared, so that removed sprites are not kept
+	Arrays.fill(filling, 0, readySize, null);
+	fillingSize = 0;
+	ready = published;
+	readySize = publishedSize;
+	publishedFrames++;
+	readyFrame = publishedFrames;
+	readyIsNew = true;
+    }
+
+    /**
+     * Returns the number of frames published so far, which is also the number of the latest frame.
+     */
+    public synchronized long getPublishedFrames() {
+	return publishedFrames;
+    }
+
+    /**
+     * Returns the number of the frame that the drawing thread is drawing, or 0 if it has not taken a frame yet. Older frames are not used
+     * by either thread, and a published frame is always newer than this one.
+     */
+    public synchronized long getDrawingFrame() {
+	return drawingFrame;
+    }
+
+    /**
+     * Takes the latest published frame if there is a new one. Otherwise the last frame is drawn again.
+     */
+    private synchronized void takeReady() {
+	if (!readyIsNew) {
+	    return;
+	}
+	Sprite[] taken = ready;
+	int takenSize = readySize;
+	long takenFrame = readyFrame;
+	ready = drawing;
+	readySize = drawingSize;
+	readyFrame = drawingFrame;
+	drawing = taken;
+	drawingSize = takenSize;
+	drawingFrame = takenFrame;
+	readyIsNew = false;
+    }
+
+    /**
+     * Draws the latest published frame.
+     */
+    public void draw(final Graphics g, final GameComponent gc) {
+	takeReady();
+	for (int i = 0; i < drawingSize; i++) {
+	    drawing[i].draw(g, gc);
+	}
+    }
+}
@@ -1,12 +1,30 @@
 package se.liu.thela038_filjo653;
 
+import se.liu.thela038_filjo653.collision.AabbTree;
+import se.liu.thela038_filjo653.collision.Broadphase;
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.collision.CollisionMatrix;
+import se.liu.thela038_filjo653.collision.CollisionShape;
+import se.liu.thela038_filjo653.collision.CollisionStats;
+import se.liu.thela038_filjo653.collision.ContactBuffer;
+import se.liu.thela038_filjo653.collision.ContactCache;
+import se.liu.thela038_filjo653.collision.IntList;
+import se.liu.thela038_filjo653.collision.IntSet;
+import se.liu.thela038_filjo653.collision.PairBuffer;
+import se.liu.thela038_filjo653.collision.ParallelNarrowphase;
+import se.liu.thela038_filjo653.collision.ShapeBuffer;
+import se.liu.thela038_filjo653.collision.SpatialHashGrid;
+import se.liu.thela038_filjo653.sprites.CollisionDispatcher;
+import se.liu.thela038_filjo653.sprites.CollisionType;
 import se.liu.thela038_filjo653.sprites.Entity;
-import se.liu.thela038_filjo653.sprites.Sprite;
 import se.liu.thela038_filjo653.time.DeltaTime;
 
-import java.awt.geom.Area;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class for handling all the entities in the game. It updates all entities, notifies them about collisions, and contains functions for
@@ -14,41 +32,144 @@ import java.util.List;
  */
 public class EntityHandler
 {
+    private static final double QUERY_CELL_SIZE = 128;
+    private static final int NOT_REMOVED = -1;
     private List<Entity> entities;
+    private List<Entity> staticEntities;
     private List<Entity> toRemove;
     private List<Entity> toAdd;
+    private final Map<CollisionType, List<Entity>> typeBuckets;
+    private final Map<CollisionType, List<Entity>> typeBucketViews;
+    private final List<Entity> entitiesView;
+    private final List<Entity> staticEntitiesView;
+    private final HandleTable<Entity> handles;
+    // For each handle slot, the index in toRemove if the entity is scheduled for removal
+    private int[] removalIndices;
+    private final Broadphase broadphase;
+    private final PairBuffer pairs;
+    private AabbTree staticTree;
+    private final IntList staticHits;
+    private long[] staticContacts;
+    private final PairBuffer staticPairs;
+    private final ParallelNarrowphase narrowphase;
+    private final PairBuffer testPairs;
+    private final ShapeBuffer firstShapes;
+    private final ShapeBuffer secondShapes;
+    private final ContactBuffer sweptContacts;
+    private final SpatialHashGrid queryGrid;
+    private final IntList queryHits;
+    private final CollisionShape queryArea;
+    private boolean queryGridValid = false;
+    private double queryMargin = 0;
+    private int updatingIndex = -1;
+    private double queryExtentMinX = 0, queryExtentMinY = 0, queryExtentMaxX = 0, queryExtentMaxY = 0;
+    private double[] nearestDistances = new double[1];
+    private final List<Entity> nearestResult = new ArrayList<>(1);
+    private int[] rayStamps = new int[0];
+    private int rayStamp = 0;
+    private final CollisionMatrix collisionMatrix;
+    private final CollisionDispatcher collisionDispatcher;
+    private final ContactCache contactCache;
+    private final IntSet removedHandles = new IntSet();
+    private final EntityPools pools;
+    private final CollisionStats collisionStats;
 
-
-    public EntityHandler() {
+    /**
+     * @param broadphaseType     Broadphase used for finding pairs that might collide.
+     * @param narrowphaseThreads Number of threads that pairs are tested on. With more than one thread, all pairs are tested before any
+     *                           collision is handled, otherwise each pair is tested right before it is handled.
+     */
+    public EntityHandler(final BroadphaseType broadphaseType, final int narrowphaseThreads) {
 	entities = new ArrayList<>();
+	staticEntities = new ArrayList<>();
 	toRemove = new ArrayList<>();
 	toAdd = new ArrayList<>();
+	entitiesView = Collections.unmodifiableList(entities);
+	staticEntitiesView = Collections.unmodifiableList(staticEntities);
+	typeBuckets = new EnumMap<>(CollisionType.class);
+	typeBucketViews = new EnumMap<>(CollisionType.class);
+	handles = new HandleTable<>();
+	removalIndices = new int[0];
+	for (CollisionType type : CollisionType.values()) {
+	    List<Entity> bucket = new ArrayList<>();
+	    typeBuckets.put(type, bucket);
+	    typeBucketViews.put(type, Collections.unmodifiableList(bucket));
+	}
+	broadphase = broadphaseType.create();
+	pairs = new PairBuffer();
+	staticTree = buildStaticTree();
+	staticHits = new IntList();
+	staticContacts = new long[0];
+	staticPairs = new PairBuffer();
+	narrowphase = narrowphaseThreads > 1 ? new ParallelNarrowphase(narrowphaseThreads) : null;
+	testPairs = new PairBuffer();
+	firstShapes = new ShapeBuffer();
+	secondShapes = new ShapeBuffer();
+	sweptContacts = new ContactBuffer();
+	queryGrid = new SpatialHashGrid(QUERY_CELL_SIZE);
+	queryHits = new IntList();
+	queryArea = new CollisionShape();
+	collisionMatrix = CollisionMatrix.load();
+	collisionDispatcher = new CollisionDispatcher(collisionMatrix);
+	contactCache = new ContactCache();
+	pools = new EntityPools();
+	collisionStats = new CollisionStats();
     }
 
     /**
-     * Checks if a given Entity type exists within the entityhandler.
+     * Stops the threads that collisions are tested on, if there are any. The entity handler must not be updated after this.
      */
-    public <T> boolean isEntityTypeExisting(Class<T> type) {
-	for (Sprite s:getIterator()) {
-	    //Kodinspektionen markerar detta som fel, men detta går inte att lösa snyggare
-	    //med polymorfism. Har rätt liknande funktion som om det användes i en equals() funktion
-	    if (type.isAssignableFrom(s.getClass())){
-	        return true;
-	    }
+    public void shutdown() {
+	if (narrowphase != null) {
+	    narrowphase.shutdown();
 	}
-	return false;
     }
 
     /**
-     * Updates the entity handler and all entities.
+     * Returns the pools of removed entities, that code creating new entities should take entities from first.
+     */
+    public EntityPools getPools() {
+	return pools;
+    }
+
+    /**
+     * Checks if there are any entities of a given collision type within the entityhandler.
+     */
+    public boolean isTypeExisting(CollisionType type) {
+	return !typeBuckets.get(type).isEmpty();
+    }
+
+    /**
+     * Returns the number of entities of a given collision type.
+     */
+    public int getEntityCount(CollisionType type) {
+	return typeBuckets.get(type).size();
+    }
+
+    /**
+     * Returns all entities of a given collision type, in the order they were added. An entity is placed by the collision type it has
+     * when it is added. The list is read only, and is updated when entities are added or removed.
+     */
+    public List<Entity> getEntities(CollisionType type) {
+	return typeBucketViews.get(type);
+    }
+
+    /**
+     * Updates the entity handler and all entities. Static entities never change, so they are not updated.
      *
      * @param deltaTime
      */
     public void update(DeltaTime deltaTime) {
 	// Update all entities
-	for (Entity entity : entities) {
+	for (int i = 0; i < entities.size(); i++) {
+	    Entity entity = entities.get(i);
+	    updatingIndex = i;
 	    entity.update(deltaTime);
+	    if (queryGridValid) {
+		growQueryMargin(i, entity);
+	    }
 	}
+	updatingIndex = -1;
 
 	internalUpdate();
     }
@@ -57,113 +178,795 @@ public class EntityHandler
      * Updates EntityHandler internally
      */
     public void internalUpdate() {
+	// Collisions can move entities
+	queryGridValid = false;
+
 	// Check collisions
 	updateCollisions();
 	addEntities();
 	clearEntities();
+
+	// Adding or removing entities changes their indices, also for a grid built by a query while handling the collisions
+	queryGridValid = false;
     }
 
     /**
-     * Schedules an entity for addition to the entity handler. It will be added when possible.
+     * Schedules an entity for addition to the entity handler. It will be added when possible, but gets its handle directly.
      *
      * @param entity
      */
     public void add(Entity entity) {
+	if (getEntity(entity.getHandle()) == entity) {
+	    // Already added
+	    return;
+	}
+
+	int handle = handles.add(entity);
+	entity.setHandle(handle);
+	int slot = HandleTable.getSlot(handle);
+	if (slot >= removalIndices.length) {
+	    int oldLength = removalIndices.length;
+	    removalIndices = Arrays.copyOf(removalIndices, Math.max(handles.getSlotCount(), oldLength * 2));
+	    Arrays.fill(removalIndices, oldLength, removalIndices.length, NOT_REMOVED);
+	}
 	toAdd.add(entity);
     }
 
     /**
-     * Schedules an entity for removal from the entity handler. It will be removed when possible.
+     * Schedules an entity for removal from the entity handler. It will be removed when possible, and its handle stops being valid then.
      *
      * @param entity
      */
     public void remove(Entity entity) {
-	// Do not allow duplicates
-	if (!toRemove.contains(entity)) {
+	// Do not allow duplicates, or entities that are not in this entity handler
+	if (getEntity(entity.getHandle()) != entity) {
+	    return;
+	}
+	int slot = HandleTable.getSlot(entity.getHandle());
+	if (removalIndices[slot] == NOT_REMOVED) {
+	    removalIndices[slot] = toRemove.size();
 	    toRemove.add(entity);
 	}
     }
 
     /**
-     * Returns an iterator with a sprite for each entity.
+     * Returns the entity with the given handle. Code that needs to remember entities over several ticks can keep their handles, and
+     * find out if they have been removed, without keeping removed entities from being garbage collected.
      *
-     * @return Iterator with sprites
+     * @return The entity, or null if it has been removed.
      */
-    public Iterable<Sprite> getIterator() {
-	List<Sprite> sprites = new ArrayList<>(entities);
-	return sprites;
+    public Entity getEntity(int handle) {
+	return handles.get(handle);
+    }
+
+    private boolean isRemovalScheduled(Entity entity) {
+	return removalIndices[HandleTable.getSlot(entity.getHandle())] != NOT_REMOVED;
+    }
+
+    /**
+     * Checks if an entity was scheduled for removal after the given number of entities had been scheduled.
+     */
+    private boolean isRemovalScheduledAfter(Entity entity, int removedBefore) {
+	return removalIndices[HandleTable.getSlot(entity.getHandle())] >= removedBefore;
+    }
+
+    /**
+     * Returns all entities that are not static, in the order they were added. They are drawn after the static entities.
+     *
+     * @return A read only list, that is updated when entities are added or removed.
+     */
+    public List<Entity> getEntities() {
+	return entitiesView;
+    }
+
+    /**
+     * Returns all static entities. They are drawn first, since they are added when the level is created.
+     *
+     * @return A read only list, that is updated when entities are added or removed.
+     */
+    public List<Entity> getStaticEntities() {
+	return staticEntitiesView;
     }
 
     /**
      * Checks for collisions between entities in this entity handler. Notifies the entities if collision.
      */
     private void updateCollisions() {
-        // Loops through all pairs of entities
+	collisionStats.reset();
+	findStaticPairs();
+	handleCollisions(staticEntities, entities, staticPairs);
+
+	// Let the broadphase find the entities that are close to each other, so that only those pairs are tested
+	broadphase.clear();
+	for (Entity entity : entities) {
+	    // A swept entity can collide anywhere along its movement, so the bounds cover both where it started and where it ended
+	    CollisionShape bounds = entity.getCollisionShape();
+	    double sweepX = entity.getSweepX();
+	    double sweepY = entity.getSweepY();
+	    broadphase.insert(bounds.getMinX() - Math.max(0, sweepX), bounds.getMinY() - Math.max(0, sweepY),
+			      bounds.getMaxX() - Math.min(0, sweepX), bounds.getMaxY() - Math.min(0, sweepY));
+	}
+	broadphase.findPairs(pairs);
 
-	// End at entities.size() - 1, to avoid comparing two entities twice. The last index will be covered by e2.
-	for (int e1Index = 0; e1Index < entities.size() - 1; e1Index++) {
-	    // Start at e1Index + 1, to avoid comparing two entities twice. All entities before will be covered by e1.
-	    for (int e2Index = e1Index + 1; e2Index < entities.size(); e2Index++) {
+	// The pairs are sorted in the same order as a loop over every pair of entities
+	handleCollisions(entities, entities, pairs);
+	handleEndedContacts();
+    }
 
-	        Entity e1 = entities.get(e1Index);
-		Entity e2 = entities.get(e2Index);
-		Area a1 = e1.getCollisionArea();
-		Area a2 = e2.getCollisionArea();
+    /**
+     * Lets the entities know about the contacts from the previous tick that did not happen again in this tick.
+     */
+    private void handleEndedContacts() {
+	contactCache.endTick();
+	for (int i = 0; i < contactCache.getEndedCount(); i++) {
+	    notifyContactEnded(handles.get(contactCache.getEndedFirst(i)), handles.get(contactCache.getEndedSecond(i)));
+	}
+    }
 
-		a1.intersect(a2);
+    /**
+     * Ends the contacts of the entities that are about to be removed, since their handles will no longer be valid when the contacts would
+     * otherwise end. Only the entities that stay are told.
+     */
+    private void handleRemovedContacts() {
+	removedHandles.clear();
+	for (Entity entity : toRemove) {
+	    removedHandles.add(entity.getHandle());
+	}
+	contactCache.endContactsOf(removedHandles);
+	for (int i = 0; i < contactCache.getEndedCount(); i++) {
+	    notifyContactEnded(handles.get(contactCache.getEndedFirst(i)), handles.get(contactCache.getEndedSecond(i)));
+	}
+    }
 
-		if (!a1.isEmpty()) {
+    private void notifyContactEnded(Entity e1, Entity e2) {
+	// An entity that is about to be removed no longer needs to know
+	if (!isRemovalScheduled(e1)) {
+	    e1.onCollisionExit(e2);
+	}
+	if (!isRemovalScheduled(e2)) {
+	    e2.onCollisionExit(e1);
+	}
+    }
+
+    /**
+     * Finds the pairs of static and moving entities whose bounds overlap. Static entities are never tested against each other. The pairs
+     * are sorted in the same order as if the static entities were first in the list of entities, which is where they are placed when the
+     * level is created.
+     */
+    private void findStaticPairs() {
+	// Each contact is stored as the static index in the high bits and the moving index in the low bits, so that sorting them gives
+	// the order of a loop over every pair
+	int contactCount = 0;
+	for (int entityIndex = 0; entityIndex < entities.size(); entityIndex++) {
+	    Entity entity = entities.get(entityIndex);
+	    CollisionShape bounds = entity.getCollisionShape();
+	    double sweepX = entity.getSweepX();
+	    double sweepY = entity.getSweepY();
+	    staticHits.clear();
+	    staticTree.query(bounds.getMinX() - Math.max(0, sweepX), bounds.getMinY() - Math.max(0, sweepY),
+			     bounds.getMaxX() - Math.min(0, sweepX), bounds.getMaxY() - Math.min(0, sweepY), staticHits);
+
+	    for (int i = 0; i < staticHits.size(); i++) {
+		if (contactCount == staticContacts.length) {
+		    staticContacts = Arrays.copyOf(staticContacts, Math.max(1, contactCount * 2));
+		}
+		staticContacts[contactCount++] = ((long) staticHits.get(i) << Integer.SIZE) | entityIndex;
+	    }
+	}
+	Arrays.sort(staticContacts, 0, contactCount);
+
+	staticPairs.clear();
+	for (int i = 0; i < contactCount; i++) {
+	    staticPairs.add((int) (staticContacts[i] >>> Integer.SIZE), (int) staticContacts[i]);
+	}
+    }
+
+    /**
+     * Tests the candidate pairs and handles the collisions in the order of the pairs. Pairs with a swept entity are handled last, in the
+     * order the contacts happened during the tick.
+     *
+     * @param firstEntities  Entities that the first index of each pair refers to.
+     * @param secondEntities Entities that the second index of each pair refers to.
+     * @param candidates     Pairs found by the broadphase.
+     */
+    private void handleCollisions(List<Entity> firstEntities, List<Entity> secondEntities, PairBuffer candidates) {
+	sweptContacts.clear();
+	if (narrowphase != null) {
+	    handleCollisionsInParallel(firstEntities, secondEntities, candidates);
+	} else {
+	    for (int pairIndex = 0; pairIndex < candidates.size(); pairIndex++) {
+		Entity e1 = firstEntities.get(candidates.getFirst(pairIndex));
+		Entity e2 = secondEntities.get(candidates.getSecond(pairIndex));
+
+		if (e1.isSwept() || e2.isSwept()) {
+		    addSweptContact(firstEntities, secondEntities, candidates.getFirst(pairIndex), candidates.getSecond(pairIndex));
+		} else if (isCollision(e1, e2)) {
 		    handleCollision(e1, e2);
 		}
 	    }
 	}
+	handleSweptContacts(firstEntities, secondEntities);
+    }
+
+    /**
+     * Tests a pair where at least one of the entities is swept, and stores the time of the first contact if they collide.
+     */
+    private void addSweptContact(List<Entity> firstEntities, List<Entity> secondEntities, int first, int second) {
+	Entity e1 = firstEntities.get(first);
+	Entity e2 = secondEntities.get(second);
+	boolean culled = !collisionMatrix.canCollide(e1.getCollisionType(), e2.getCollisionType());
+	collisionStats.addCandidate(culled);
+	if (culled) {
+	    return;
+	}
+
+	// A swept entity is always the moving shape, whichever side of the pair it is on, so that the shape it hits is not treated as a
+	// box. Seen from the other entity, it moves the difference between their movements.
+	Entity moving = e2;
+	Entity obstacle = e1;
+	if (e1.isSwept() && !e2.isSwept()) {
+	    moving = e1;
+	    obstacle = e2;
+	}
+	CollisionShape movingShape = moving.getCollisionShape();
+	CollisionShape obstacleShape = obstacle.getCollisionShape();
+	double time = obstacleShape.sweep(movingShape, moving.getSweepX() - obstacle.getSweepX(), moving.getSweepY() - obstacle.getSweepY());
+	if (time == CollisionShape.NO_CONTACT && obstacleShape.intersects(movingShape)) {
+	    // The sweep treats the moving shape as a box, so also count everything that overlaps after the movement
+	    time = 1;
+	}
+	if (time != CollisionShape.NO_CONTACT) {
+	    collisionStats.addContact();
+	    sweptContacts.add(first, second, time);
+	}
+    }
+
+    /**
+     * Handles the contacts of swept entities in the order they happened. A swept entity that is removed by a collision, like a bullet
+     * hitting an enemy, stops there and does not collide with what is further along its movement.
+     */
+    private void handleSweptContacts(List<Entity> firstEntities, List<Entity> secondEntities) {
+	sweptContacts.sortByTime();
+	// Entities that were removed before this point still get their collisions, the same as for entities that are not swept
+	int removedBefore = toRemove.size();
+
+	for (int i = 0; i < sweptContacts.size(); i++) {
+	    Entity e1 = firstEntities.get(sweptContacts.getFirst(i));
+	    Entity e2 = secondEntities.get(sweptContacts.getSecond(i));
+	    boolean stopped = (e1.isSwept() && isRemovalScheduledAfter(e1, removedBefore)) ||
+			      (e2.isSwept() && isRemovalScheduledAfter(e2, removedBefore));
+	    if (!stopped) {
+		handleCollision(e1, e2);
+	    }
+	}
+    }
+
+    /**
+     * Tests all candidate pairs on several threads, and then handles the collisions on this thread in the same order as
+     * handleCollisions. Collision responses can move entities, e.g when pushing them out of walls, so a pair is tested again if any of the shapes
+     * has been updated since the parallel test. This gives exactly the same collisions as testing each pair right before handling it.
+     */
+    private void handleCollisionsInParallel(List<Entity> firstEntities, List<Entity> secondEntities, PairBuffer candidates) {
+	// Culling is cheap, so only the pairs that need a shape test are handed to the other threads
+	testPairs.clear();
+	for (int pairIndex = 0; pairIndex < candidates.size(); pairIndex++) {
+	    int first = candidates.getFirst(pairIndex);
+	    int second = candidates.getSecond(pairIndex);
+	    Entity e1 = firstEntities.get(first);
+	    Entity e2 = secondEntities.get(second);
+	    if (e1.isSwept() || e2.isSwept()) {
+		// Swept pairs are tested here, since they are handled after all other pairs anyway
+		addSweptContact(firstEntities, secondEntities, first, second);
+		continue;
+	    }
+
+	    boolean culled = !collisionMatrix.canCollide(e1.getCollisionType(), e2.getCollisionType());
+	    collisionStats.addCandidate(culled);
+	    if (!culled) {
+		testPairs.add(first, second);
+	    }
+	}
+
+	// The shapes are updated here, since the cached shapes must not be updated from several threads
+	fillShapes(firstEntities, firstShapes);
+	ShapeBuffer secondEntityShapes = firstShapes;
+	if (secondEntities != firstEntities) {
+	    fillShapes(secondEntities, secondShapes);
+	    secondEntityShapes = secondShapes;
+	}
+	narrowphase.test(firstShapes, secondEntityShapes, testPairs);
+
+	for (int pairIndex = 0; pairIndex < testPairs.size(); pairIndex++) {
+	    int first = testPairs.getFirst(pairIndex);
+	    int second = testPairs.getSecond(pairIndex);
+	    Entity e1 = firstEntities.get(first);
+	    Entity e2 = secondEntities.get(second);
+	    CollisionShape shape1 = e1.getCollisionShape();
+	    CollisionShape shape2 = e2.getCollisionShape();
+
+	    boolean overlapping;
+	    if (e1.getCollisionShapeVersion() == firstShapes.getVersion(first) &&
+		e2.getCollisionShapeVersion() == secondEntityShapes.getVersion(second)) {
+		overlapping = narrowphase.overlaps(pairIndex);
+	    } else {
+		overlapping = shape1.intersects(shape2);
+	    }
+
+	    if (overlapping) {
+		collisionStats.addContact();
+		handleCollision(e1, e2);
+	    }
+	}
+	firstShapes.clear();
+	secondShapes.clear();
+    }
+
+    private void fillShapes(List<Entity> entityList, ShapeBuffer shapes) {
+	shapes.clear();
+	for (Entity entity : entityList) {
+	    shapes.add(entity.getCollisionShape(), entity.getCollisionShapeVersion());
+	}
+    }
+
+    /**
+     * Checks if two entities collide. Pairs where none of the entities react to the other are skipped without testing their shapes.
+     */
+    private boolean isCollision(Entity entity1, Entity entity2) {
+	boolean culled = !collisionMatrix.canCollide(entity1.getCollisionType(), entity2.getCollisionType());
+	collisionStats.addCandidate(culled);
+	if (culled || !entity1.getCollisionShape().intersects(entity2.getCollisionShape())) {
+	    return false;
+	}
+	collisionStats.addContact();
+	return true;
+    }
+
+    /**
+     * Returns counters for the collision detection during the last tick.
+     */
+    public CollisionStats getCollisionStats() {
+	return collisionStats;
+    }
+
+    /**
+     * Builds a tree from the bounds of all static entities.
+     */
+    private AabbTree buildStaticTree() {
+	int count = staticEntities.size();
+	double[] minX = new double[count];
+	double[] minY = new double[count];
+	double[] maxX = new double[count];
+	double[] maxY = new double[count];
+	for (int i = 0; i < count; i++) {
+	    CollisionShape bounds = staticEntities.get(i).getCollisionShape();
+	    minX[i] = bounds.getMinX();
+	    minY[i] = bounds.getMinY();
+	    maxX[i] = bounds.getMaxX();
+	    maxY[i] = bounds.getMaxY();
+	}
+	return new AabbTree(minX, minY, maxX, maxY);
     }
 
     /**
-     * Handles the collision between two entities.
+     * Handles the collision between two entities, by looking up what each of them does in the table of collision handlers. Both entities
+     * are first told if the contact is new or staying. If the entities were in contact in the previous tick as well, only entities that
+     * respond to staying contacts handle it again.
      *
      * @param entity1
      * @param entity2
      */
     private void handleCollision(Entity entity1, Entity entity2) {
-	entity1.onCollide(entity2);
-	entity2.onCollide(entity1);
+	if (!contactCache.add(entity1.getHandle(), entity2.getHandle())) {
+	    entity1.onCollisionEnter(entity2);
+	    entity2.onCollisionEnter(entity1);
+	    collisionDispatcher.dispatch(entity1, entity2);
+	    return;
+	}
+	entity1.onCollisionStay(entity2);
+	entity2.onCollisionStay(entity1);
+	if (entity1.isRespondingToStay()) {
+	    collisionDispatcher.respond(entity1, entity2);
+	}
+	if (entity2.isRespondingToStay()) {
+	    collisionDispatcher.respond(entity2, entity1);
+	}
     }
 
 
     /**
-     * Checks if there are any entities in a given area, returns those entities
+     * Finds the entities whose collision shapes overlap a rectangle.
+     *
+     * @param type   Only entities of this collision type are found, or null for all entities.
+     * @param result List that the entities are written to. It is cleared first.
+     */
+    public void queryRectangle(double x, double y, double width, double height, CollisionType type, List<Entity> result) {
+	queryArea.setRectangle(x, y, width, height);
+	queryShape(queryArea, type, result);
+    }
+
+    /**
+     * Finds the entities whose collision shapes overlap a circle.
      *
-     * @param Area
+     * @param type   Only entities of this collision type are found, or null for all entities.
+     * @param result List that the entities are written to. It is cleared first.
      */
-    public List<Entity> entitiesInArea(Area range) {
-        List<Entity> entitiesInArea = new ArrayList<>();
-	for (int eIndex = 0; eIndex < entities.size() - 1; eIndex++) {
-	    Entity entity = entities.get(eIndex);
-	    Area entityArea = entity.getCollisionArea();
-	    Area rangeCopy = new Area(range);
+    public void queryRadius(double centerX, double centerY, double radius, CollisionType type, List<Entity> result) {
+	queryArea.setEllipse(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+	queryShape(queryArea, type, result);
+    }
 
-	    entityArea.intersect(rangeCopy);
-	    if (!entityArea.isEmpty()) {
-		entitiesInArea.add(entity);
+    /**
+     * Finds the entities whose collision shapes overlap a shape. Static entities come first and then the other entities, each in the
+     * order they were added.
+     *
+     * @param area   Shape to test against. It is not kept, so the caller can reuse it.
+     * @param type   Only entities of this collision type are found, or null for all entities.
+     * @param result List that the entities are written to. It is cleared first.
+     */
+    public void queryShape(CollisionShape area, CollisionType type, List<Entity> result) {
+	result.clear();
+
+	queryHits.clear();
+	staticTree.query(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), queryHits);
+	queryHits.sort();
+	addQueryResults(staticEntities, area, type, result);
+
+	if (!queryGridValid) {
+	    buildQueryGrid();
+	}
+	queryHits.clear();
+	queryGrid.query(area.getMinX() - queryMargin, area.getMinY() - queryMargin, area.getMaxX() + queryMargin,
+			area.getMaxY() + queryMargin, queryHits);
+	if (updatingIndex >= 0) {
+	    // The entity that is being updated might have moved before the query, and is not covered by the margin yet
+	    queryHits.add(updatingIndex);
+	}
+	queryHits.sort();
+	addQueryResults(entities, area, type, result);
+    }
+
+    /**
+     * Finds the entity whose collision shape has its center closest to a point.
+     *
+     * @param maxRadius Entities further away than this are not found.
+     * @param type      Only entities of this collision type are found, or null for all entities.
+     *
+     * @return The closest entity, or null if there is none within the radius.
+     */
+    public Entity queryNearest(double x, double y, double maxRadius, CollisionType type) {
+	queryNearest(x, y, maxRadius, type, 1, nearestResult);
+	Entity nearest = nearestResult.isEmpty() ? null : nearestResult.get(0);
+	nearestResult.clear();
+	return nearest;
+    }
+
+    /**
+     * Finds the entities whose collision shapes have their centers closest to a point. The search starts close to the point and doubles
+     * the radius until enough entities are found, so the cost depends on how many entities there are around the point, and not on the
+     * total number of entities.
+     *
+     * @param maxRadius Entities further away than this are not found.
+     * @param type      Only entities of this collision type are found, or null for all entities.
+     * @param count     Largest number of entities to find.
+     * @param result    List that the entities are written to, closest first. It is cleared first.
+     */
+    public void queryNearest(double x, double y, double maxRadius, CollisionType type, int count, List<Entity> result) {
+	result.clear();
+	if (count <= 0) {
+	    return;
+	}
+	if (!queryGridValid) {
+	    buildQueryGrid();
+	}
+	if (queryExtentMinX > queryExtentMaxX) {
+	    // There are no entities
+	    return;
+	}
+	if (nearestDistances.length < count) {
+	    nearestDistances = new double[count];
+	}
+
+	// No entity is further away than the farthest corner of the bounds of all entities
+	double farthestX = Math.max(x - queryExtentMinX, queryExtentMaxX - x);
+	double farthestY = Math.max(y - queryExtentMinY, queryExtentMaxY - y);
+	double radiusLimit = Math.min(maxRadius, Math.sqrt(farthestX * farthestX + farthestY * farthestY) + queryMargin);
+
+	double radius = Math.min(QUERY_CELL_SIZE, radiusLimit);
+	collectNearest(x, y, radius, type, count, result);
+	// Every entity within the radius has been found, so once there are enough of them no entity further away can be closer
+	while (result.size() < count && radius < radiusLimit) {
+	    radius = Math.min(radius * 2, radiusLimit);
+	    collectNearest(x, y, radius, type, count, result);
+	}
+    }
+
+    /**
+     * Finds the closest entities within a radius, sorted on distance.
+     */
+    private void collectNearest(double x, double y, double radius, CollisionType type, int count, List<Entity> result) {
+	result.clear();
+	double minX = x - radius - queryMargin;
+	double minY = y - radius - queryMargin;
+	double maxX = x + radius + queryMargin;
+	double maxY = y + radius + queryMargin;
+
+	queryHits.clear();
+	staticTree.query(minX, minY, maxX, maxY, queryHits);
+	queryHits.sort();
+	addNearestResults(staticEntities, x, y, radius, type, count, result);
+
+	queryHits.clear();
+	queryGrid.query(minX, minY, maxX, maxY, queryHits);
+	if (updatingIndex >= 0) {
+	    queryHits.add(updatingIndex);
+	}
+	queryHits.sort();
+	addNearestResults(entities, x, y, radius, type, count, result);
+    }
+
+    /**
+     * Inserts the entities in queryHits that are within the radius into the sorted result, keeping at most count entities. Entities at
+     * the same distance keep the order they were added in.
+     */
+    private void addNearestResults(List<Entity> entityList, double x, double y, double radius, CollisionType type, int count,
+				   List<Entity> result)
+    {
+	int lastIndex = -1;
+	for (int i = 0; i < queryHits.size(); i++) {
+	    int index = queryHits.get(i);
+	    if (index == lastIndex) {
+		continue;
+	    }
+	    lastIndex = index;
+
+	    Entity entity = entityList.get(index);
+	    if (type != null && entity.getCollisionType() != type) {
+		continue;
+	    }
+	    double distance = getCenterDistance(entity, x, y);
+	    if (distance > radius || (result.size() == count && distance >= nearestDistances[count - 1])) {
+		continue;
+	    }
+
+	    int position = Math.min(result.size(), count - 1);
+	    if (result.size() == count) {
+		result.remove(count - 1);
 	    }
+	    while (position > 0 && nearestDistances[position - 1] > distance) {
+		nearestDistances[position] = nearestDistances[position - 1];
+		position--;
+	    }
+	    nearestDistances[position] = distance;
+	    result.add(position, entity);
 	}
-	return entitiesInArea;
+    }
+
+    static double getCenterDistance(Entity entity, double x, double y) {
+	double dx = entity.getCollisionCenterX() - x;
+	double dy = entity.getCollisionCenterY() - y;
+	return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Finds the first entity that a ray hits, e.g for checking the line of sight between two points.
+     *
+     * @param directionX  Direction of the ray along the x axis. The direction does not need to be normalized.
+     * @param directionY  Direction of the ray along the y axis.
+     * @param maxDistance Length of the ray, can be Double.POSITIVE_INFINITY.
+     * @param layerMask   Layers of the collision types that the ray can hit, see CollisionMatrix.layer.
+     * @param result      Holder that the hit is written to. It is cleared first.
+     *
+     * @return true if the ray hit an entity.
+     */
+    public boolean raycast(double x, double y, double directionX, double directionY, double maxDistance, int layerMask,
+			   RaycastResult result)
+    {
+	castRay(x, y, directionX, directionY, maxDistance, layerMask, false, result);
+	return result.hasHit();
+    }
+
+    /**
+     * Finds all entities that a ray hits, sorted on distance. See raycast for the parameters.
+     *
+     * @return The number of hits.
+     */
+    public int raycastAll(double x, double y, double directionX, double directionY, double maxDistance, int layerMask,
+			  RaycastResult result)
+    {
+	castRay(x, y, directionX, directionY, maxDistance, layerMask, true, result);
+	return result.size();
+    }
+
+    private void castRay(double x, double y, double directionX, double directionY, double maxDistance, int layerMask, boolean allHits,
+			 RaycastResult result)
+    {
+	double length = Math.sqrt(directionX * directionX + directionY * directionY);
+	if (length == 0) {
+	    result.reset(x, y, 0, 0, allHits);
+	    return;
+	}
+	double unitX = directionX / length;
+	double unitY = directionY / length;
+	result.reset(x, y, unitX, unitY, allHits);
+
+	if (!queryGridValid) {
+	    buildQueryGrid();
+	}
+	if (queryExtentMinX > queryExtentMaxX) {
+	    // There are no entities
+	    return;
+	}
+
+	// No entity is further away than the farthest corner of the bounds of all entities
+	double farthestX = Math.max(x - queryExtentMinX, queryExtentMaxX - x);
+	double farthestY = Math.max(y - queryExtentMinY, queryExtentMaxY - y);
+	double rayLength = Math.min(maxDistance, Math.sqrt(farthestX * farthestX + farthestY * farthestY) + queryMargin);
+	double deltaX = unitX * rayLength;
+	double deltaY = unitY * rayLength;
+
+	queryHits.clear();
+	staticTree.querySegment(x, y, deltaX, deltaY, queryHits);
+	queryHits.sort();
+	for (int i = 0; i < queryHits.size(); i++) {
+	    addRayHit(staticEntities.get(queryHits.get(i)), x, y, deltaX, deltaY, rayLength, layerMask, result);
+	}
+
+	// Entities can be found in several cells, so every cast stamps the entities it has tested
+	rayStamp++;
+	if (rayStamps.length < entities.size()) {
+	    rayStamps = new int[Math.max(entities.size(), rayStamps.length * 2)];
+	}
+	if (updatingIndex >= 0) {
+	    rayStamps[updatingIndex] = rayStamp;
+	    addRayHit(entities.get(updatingIndex), x, y, deltaX, deltaY, rayLength, layerMask, result);
+	}
+
+	// The grid is searched in pieces of one cell along the ray, so that a hit close to the start ends the search early
+	int pieceCount = Math.max(1, (int) Math.ceil(rayLength / QUERY_CELL_SIZE));
+	for (int piece = 0; piece < pieceCount; piece++) {
+	    double pieceStart = (double) piece / pieceCount;
+	    double pieceEnd = (double) (piece + 1) / pieceCount;
+	    if (!allHits && result.hasHit() && result.getDistance(0) <= pieceStart * rayLength) {
+		break;
+	    }
+
+	    double startX = x + deltaX * pieceStart;
+	    double startY = y + deltaY * pieceStart;
+	    double endX = x + deltaX * pieceEnd;
+	    double endY = y + deltaY * pieceEnd;
+	    queryHits.clear();
+	    queryGrid.query(Math.min(startX, endX) - queryMargin, Math.min(startY, endY) - queryMargin,
+			    Math.max(startX, endX) + queryMargin, Math.max(startY, endY) + queryMargin, queryHits);
+	    queryHits.sort();
+	    for (int i = 0; i < queryHits.size(); i++) {
+		int index = queryHits.get(i);
+		if (rayStamps[index] != rayStamp) {
+		    rayStamps[index] = rayStamp;
+		    addRayHit(entities.get(index), x, y, deltaX, deltaY, rayLength, layerMask, result);
+		}
+	    }
+	}
+    }
+
+    private static void addRayHit(Entity entity, double x, double y, double deltaX, double deltaY, double rayLength, int layerMask,
+				  RaycastResult result)
+    {
+	if ((layerMask & CollisionMatrix.layer(entity.getCollisionType())) == 0) {
+	    return;
+	}
+	double time = entity.getCollisionShape().raycast(x, y, deltaX, deltaY);
+	if (time != CollisionShape.NO_CONTACT) {
+	    result.addHit(entity, time * rayLength);
+	}
+    }
+
+    /**
+     * Adds the entities in queryHits that overlap the area to the result. The hits must be sorted, and can contain duplicates.
+     */
+    private void addQueryResults(List<Entity> entityList, CollisionShape area, CollisionType type, List<Entity> result) {
+	int lastIndex = -1;
+	for (int i = 0; i < queryHits.size(); i++) {
+	    int index = queryHits.get(i);
+	    if (index == lastIndex) {
+		continue;
+	    }
+	    lastIndex = index;
+
+	    Entity entity = entityList.get(index);
+	    if ((type == null || entity.getCollisionType() == type) && entity.getCollisionShape().intersects(area)) {
+		result.add(entity);
+	    }
+	}
+    }
+
+    /**
+     * Fills the grid used for queries with the bounds of all entities that are not static.
+     */
+    private void buildQueryGrid() {
+	queryGrid.clear();
+	queryExtentMinX = Double.POSITIVE_INFINITY;
+	queryExtentMinY = Double.POSITIVE_INFINITY;
+	queryExtentMaxX = Double.NEGATIVE_INFINITY;
+	queryExtentMaxY = Double.NEGATIVE_INFINITY;
+	for (Entity entity : entities) {
+	    CollisionShape bounds = entity.getCollisionShape();
+	    queryGrid.insert(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+	    growQueryExtent(bounds);
+	}
+	for (Entity entity : staticEntities) {
+	    growQueryExtent(entity.getCollisionShape());
+	}
+	queryMargin = 0;
+	queryGridValid = true;
+    }
+
+    private void growQueryExtent(CollisionShape bounds) {
+	queryExtentMinX = Math.min(queryExtentMinX, bounds.getMinX());
+	queryExtentMinY = Math.min(queryExtentMinY, bounds.getMinY());
+	queryExtentMaxX = Math.max(queryExtentMaxX, bounds.getMaxX());
+	queryExtentMaxY = Math.max(queryExtentMaxY, bounds.getMaxY());
+    }
+
+    /**
+     * Entities keep moving during the update after the query grid is built. Instead of moving them in the grid, queries are grown by the
+     * longest distance any entity has moved since then, so that they still find every entity.
+     */
+    private void growQueryMargin(int index, Entity entity) {
+	CollisionShape bounds = entity.getCollisionShape();
+	double moved = Math.max(Math.max(Math.abs(bounds.getMinX() - queryGrid.getMinX(index)),
+					 Math.abs(bounds.getMinY() - queryGrid.getMinY(index))),
+				Math.max(Math.abs(bounds.getMaxX() - queryGrid.getMaxX(index)),
+					 Math.abs(bounds.getMaxY() - queryGrid.getMaxY(index))));
+	queryMargin = Math.max(queryMargin, moved);
     }
 
     /**
      * Adds entities that have been scheduled for adding.
      */
     private void addEntities() {
-	entities.addAll(toAdd);
+	boolean staticChanged = false;
+	for (Entity entity : toAdd) {
+	    typeBuckets.get(entity.getCollisionType()).add(entity);
+	    if (entity.isStatic()) {
+		staticEntities.add(entity);
+		staticChanged = true;
+	    } else {
+		entities.add(entity);
+	    }
+	}
 	toAdd.clear();
+
+	// Static entities are normally only added when the level is created, so the tree is only built once per level
+	if (staticChanged) {
+	    staticTree = buildStaticTree();
+	}
     }
 
     /**
-     * Removes entities that have been scheduled for removal.
+     * Removes entities that have been scheduled for removal. Each list is compacted in a single pass that keeps the order of the remaining
+     * entities, since the order decides both the draw order and the order collisions are handled in.
      */
     private void clearEntities() {
-	entities.removeAll(toRemove);
+	if (toRemove.isEmpty()) {
+	    return;
+	}
+
+	handleRemovedContacts();
+	entities.removeIf(this::isRemovalScheduled);
+	if (staticEntities.removeIf(this::isRemovalScheduled)) {
+	    staticTree = buildStaticTree();
+	}
+	for (List<Entity> bucket : typeBuckets.values()) {
+	    bucket.removeIf(this::isRemovalScheduled);
+	}
+
+	for (Entity entity : toRemove) {
+	    removalIndices[HandleTable.getSlot(entity.getHandle())] = NOT_REMOVED;
+	    handles.remove(entity.getHandle());
+	    entity.setHandle(HandleTable.NO_HANDLE);
+	    // The handle is no longer valid, so once the entity is not drawn it can be reused without anything finding it by the handle
+	    pools.retire(entity);
+	}
 	toRemove.clear();
     }
 }
@@ -0,0 +1,114 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removed entities that can be reused instead of creating new ones, one pool per class. Only entities that say that they are poolable are
+ * kept, and they must reset all of their state when they are reused, see Entity.isPoolable.
+ * <p>
+ * The EntityHandler retires entities when they have been removed and their handles have stopped being valid, so nothing that keeps
+ * handles can reach a reused entity by mistake. A retired entity can still be in the frames of the DrawList, so it is only released into
+ * its pool when the drawing thread has moved on to a frame that was filled after the removal. Code that creates entities asks the pool for
+ * one first, and only creates a new one if the pool is empty.
+ */
+public class EntityPools
+{
+    // Enough for the bullets and explosions of a late wave, more than this is left to the garbage collector
+    private static final int MAX_POOL_SIZE = 512;
+    // If the frames are not drawn, for example when the window is hidden, the oldest retired entities are left to the garbage collector
+    private static final int MAX_RETIRED = 1024;
+
+    private final Map<Class<? extends Entity>, List<Entity>> pools = new HashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+
+    // Retired entities in the order they were removed, in a ring. The frame is the last frame that can hold the entity.
+    private final Entity[] retired = new Entity[MAX_RETIRED];
+    private final long[] retiredFrames = new long[MAX_RETIRED];
+    private int retiredStart = 0;
+    private int retiredCount = 0;
+    private long publishedFrames = 0;
+
+    /**
+     * Takes an entity of the given class from its pool. The entity keeps the state it had when it was removed, so it must be reset before
+     * it is added again.
+     *
+     * @return The entity, or null if the pool is empty.
+     */
+    public <T extends Entity> T acquire(final Class<T> type) {
+	List<Entity> pool = pools.get(type);
+	if (pool == null || pool.isEmpty()) {
+	    misses++;
+	    return null;
+	}
+	hits++;
+	return type.cast(pool.remove(pool.size() - 1));
+    }
+
+    /**
+     * Puts a removed entity in the pool of its class, if it is poolable and the pool is not full.
+     */
+    public void release(final Entity entity) {
+	if (!entity.isPoolable()) {
+	    return;
+	}
+	List<Entity> pool = pools.computeIfAbsent(entity.getClass(), type -> new ArrayList<>());
+	if (pool.size() < MAX_POOL_SIZE) {
+	    pool.add(entity);
+	}
+    }
+
+    /**
+     * Keeps a removed entity until no frame that can hold it is drawn anymore, and then releases it. Frames that are published after this
+     * call do not hold the entity, since it has been removed. The entity is told to drop its references to other entities first, see
+     * Entity.onRetired.
+     */
+    public void retire(final Entity entity) {
+	if (!entity.isPoolable()) {
+	    return;
+	}
+	entity.onRetired();
+	if (retiredCount == MAX_RETIRED) {
+	    retired[retiredStart] = null;
+	    retiredStart = (retiredStart + 1) % MAX_RETIRED;
+	    retiredCount--;
+	}
+	int index = (retiredStart + retiredCount) % MAX_RETIRED;
+	retired[index] = entity;
+	retiredFrames[index] = publishedFrames;
+	retiredCount++;
+    }
+
+    /**
+     * Releases the retired entities that are only in frames older than the one being drawn. Should be called after every published
+     * frame.
+     *
+     * @param publishedFrames Number of the latest published frame.
+     * @param drawingFrame    Number of the frame that is being drawn.
+     */
+    public void onFramePublished(final long publishedFrames, final long drawingFrame) {
+	this.publishedFrames = publishedFrames;
+	while (retiredCount > 0 && retiredFrames[retiredStart] < drawingFrame) {
+	    release(retired[retiredStart]);
+	    retired[retiredStart] = null;
+	    retiredStart = (retiredStart + 1) % MAX_RETIRED;
+	    retiredCount--;
+	}
+    }
+
+    /**
+     * Returns the share of calls to acquire that got an entity from a pool.
+     *
+     * @return Hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+	long total = hits + misses;
+	return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -1,11 +1,12 @@
 package se.liu.thela038_filjo653;
 
+import se.liu.thela038_filjo653.collision.BroadphaseType;
 import se.liu.thela038_filjo653.enemies.EnemySpawner;
 import se.liu.thela038_filjo653.input.KeyHandler;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.sprites.Entity;
 import se.liu.thela038_filjo653.sprites.Player;
-import se.liu.thela038_filjo653.sprites.Sprite;
 import se.liu.thela038_filjo653.sprites.SpriteTexture;
 import se.liu.thela038_filjo653.sprites.Wall;
 import se.liu.thela038_filjo653.time.DeltaTime;
@@ -50,10 +51,15 @@ public class Game
     private SpriteTexture ammoText = null;
     private int wave;
     private GameComponent gameComponent;
+    private final BroadphaseType broadphaseType;
+    private final int narrowphaseThreads;
+    private final DrawList drawList = new DrawList();
 
     private final Logger logger = Logger.getLogger("");
 
-    public Game() {
+    public Game(final BroadphaseType broadphaseType, final int narrowphaseThreads) {
+	this.broadphaseType = broadphaseType;
+	this.narrowphaseThreads = narrowphaseThreads;
 	setUpLogger();
 
 	imageLoader = new ImageLoader();
@@ -151,7 +157,11 @@ public class Game
 
     private void init() {
 	spriteHandler = new SpriteHandler();
-	entityHandler = new EntityHandler();
+	// A restart replaces the entity handler, so the threads of the old one must be stopped
+	if (entityHandler != null) {
+	    entityHandler.shutdown();
+	}
+	entityHandler = new EntityHandler(broadphaseType, narrowphaseThreads);
 	stopGame = false;
 	wave = 0;
 
@@ -181,6 +191,9 @@ public class Game
     }
 
     private void onGameOver(long gameOverTime) {
+	logger.log(Level.INFO, String.format("Collision shape cache hit rate: %.3f", Entity.getShapeCacheHitRate()));
+	logger.log(Level.INFO, String.format("Entity pool hit rate: %.3f", entityHandler.getPools().getHitRate()));
+
 	BufferedImage image = imageLoader.getImage(ImageLoader.ImageName.DEATH);
 
 	final double endPosXPercent = 0.5, endPosYPercent = 0.2;
@@ -191,6 +204,8 @@ public class Game
 	SpriteTexture endScreen = new SpriteTexture(endPos, 0, image);
 	spriteHandler.add(endScreen, SpriteLayer.LAST);
 	spriteHandler.update(new DeltaTime(0));
+	// The component only draws published frames, so the end screen needs a frame of its own
+	updateDrawList();
 	gameComponent.repaint();
 
 	while (stopGame) {
@@ -243,6 +258,7 @@ public class Game
 	wave = enemySpawner.update(deltaTime, wave);
 	entityHandler.update(deltaTime);
 	spriteHandler.update(deltaTime);
+	updateDrawList();
 	if (!player.isAlive()) {
 	    stopGame = true;
 	}
@@ -281,23 +297,22 @@ public class Game
     }
 
     /**
-     * Returns an iterable var of all sprites. Basically merges all sprites into one list for gameComponent. The list's order matters,
-     * sprites are drawn before entities, etc
+     * Fills the draw list with all sprites, and hands it over to gameComponent. The order matters, sprites are drawn before entities,
+     * etc
      */
-    public Iterable<Sprite> getSpriteIterator() {
-	List<Sprite> sprites = new ArrayList<>();
-
-	addIterator(sprites, spriteHandler.getLayerIterator(SpriteLayer.FIRST));
-	addIterator(sprites, entityHandler.getIterator());
-	addIterator(sprites, spriteHandler.getLayerIterator(SpriteLayer.LAST));
-
-	return sprites;
+    private void updateDrawList() {
+	drawList.add(spriteHandler.getBackgroundTexture());
+	drawList.addAll(spriteHandler.getLayer(SpriteLayer.FIRST));
+	drawList.addAll(entityHandler.getStaticEntities());
+	drawList.addAll(entityHandler.getEntities());
+	drawList.addAll(spriteHandler.getLayer(SpriteLayer.LAST));
+	drawList.publish();
+	// Removed entities are only reused when the drawing thread no longer draws a frame that holds them
+	entityHandler.getPools().onFramePublished(drawList.getPublishedFrames(), drawList.getDrawingFrame());
     }
 
-    public void addIterator(List<Sprite> sprites, Iterable<Sprite> it) {
-	for (Sprite s : it) {
-	    sprites.add(s);
-	}
+    public DrawList getDrawList() {
+	return drawList;
     }
 
     /**
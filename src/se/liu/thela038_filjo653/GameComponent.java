@@ -1,7 +1,5 @@
 package se.liu.thela038_filjo653;
 
-import se.liu.thela038_filjo653.sprites.Sprite;
-
 import javax.swing.*;
 import java.awt.*;
 
@@ -27,8 +25,6 @@ public class GameComponent extends JComponent
         super.paintComponent(g);
 
         // Draw all sprites
-        for (Sprite sprite : game.getSpriteIterator()) {
-            sprite.draw(g, this);
-        }
+        game.getDrawList().draw(g, this);
     }
 }
@@ -0,0 +1,116 @@
+package se.liu.thela038_filjo653;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table that gives objects stable integer handles. A handle is the index of a slot in the table combined with the generation of the
+ * slot, which is increased every time the slot is freed. A handle to a removed object therefore stops being valid even when its slot is
+ * reused, and code that keeps handles instead of references does not keep removed objects reachable.
+ * <p>
+ * The generation wraps around after 2048 reuses of the same slot, after which a very old handle could point to a new object. To keep that
+ * far away, freed slots are reused in the order they were freed, and only once there are at least MIN_FREE_SLOTS of them. A slot is then
+ * reused at most once for every MIN_FREE_SLOTS objects that are removed, so a handle stays unique for over two million removals.
+ *
+ * @param <T> Type of the objects in the table.
+ */
+public class HandleTable<T>
+{
+    /**
+     * Handle that is never valid.
+     */
+    public static final int NO_HANDLE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_FREE_SLOTS = 1024;
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    // The sign bit is never used, so that valid handles are never negative
+    private static final int GENERATION_MASK = (1 << (Integer.SIZE - 1 - SLOT_BITS)) - 1;
+
+    private final List<T> objects = new ArrayList<>();
+    private int[] generations = new int[INITIAL_CAPACITY];
+    // Queue of the freed slots, oldest first, wrapping around at the end of the array
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeStart = 0;
+    private int freeCount = 0;
+
+    /**
+     * Adds an object to the table.
+     *
+     * @return The handle of the object.
+     */
+    public int add(final T object) {
+	int slot;
+	if (freeCount >= MIN_FREE_SLOTS) {
+	    slot = freeSlots[freeStart];
+	    freeStart = (freeStart + 1) % freeSlots.length;
+	    freeCount--;
+	    objects.set(slot, object);
+	} else {
+	    slot = objects.size();
+	    if (slot > SLOT_MASK) {
+		throw new IllegalStateException("Too many objects in the handle table");
+	    }
+	    objects.add(object);
+	    if (slot == generations.length) {
+		generations = Arrays.copyOf(generations, slot * 2);
+	    }
+	}
+	return (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    /**
+     * Returns the object with the given handle.
+     *
+     * @return The object, or null if the handle is not valid.
+     */
+    public T get(final int handle) {
+	if (handle < 0) {
+	    return null;
+	}
+	int slot = getSlot(handle);
+	if (slot >= objects.size() || generations[slot] != handle >>> SLOT_BITS) {
+	    return null;
+	}
+	return objects.get(slot);
+    }
+
+    /**
+     * Removes the object with the given handle. The handle, and every copy of it, is no longer valid afterwards.
+     */
+    public void remove(final int handle) {
+	if (get(handle) == null) {
+	    return;
+	}
+	int slot = getSlot(handle);
+	objects.set(slot, null);
+	generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+	if (freeCount == freeSlots.length) {
+	    // Unwrap the queue into the larger array
+	    int[] grown = new int[freeCount * 2];
+	    for (int i = 0; i < freeCount; i++) {
+		grown[i] = freeSlots[(freeStart + i) % freeSlots.length];
+	    }
+	    freeSlots = grown;
+	    freeStart = 0;
+	}
+	freeSlots[(freeStart + freeCount) % freeSlots.length] = slot;
+	freeCount++;
+    }
+
+    /**
+     * Returns the number of slots in the table. Every slot index is lower than this, so it can be used to size arrays indexed by slot.
+     */
+    public int getSlotCount() {
+	return objects.size();
+    }
+
+    /**
+     * Returns the index of the slot that a handle refers to.
+     */
+    public static int getSlot(final int handle) {
+	return handle & SLOT_MASK;
+    }
+}
@@ -1,13 +1,24 @@
 package se.liu.thela038_filjo653;
 
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+
 /**
  * The entrypoint for the game. Creates a game object and calls upon it's start function to initilize the entire game.
+ * The broadphase used for collisions can be selected with the system property "broadphase", e.g -Dbroadphase=SWEEP_AND_PRUNE, and the
+ * number of threads that collisions are tested on with "narrowphaseThreads", e.g -DnarrowphaseThreads=4.
  */
 public class Main
 {
+    private static final BroadphaseType DEFAULT_BROADPHASE = BroadphaseType.SPATIAL_HASH;
+    // A normal wave has too few pairs for other threads to pay off, so collisions are tested on the game thread by default
+    private static final int DEFAULT_NARROWPHASE_THREADS = 1;
+
     public static void main(String[] args) {
+        BroadphaseType broadphaseType = BroadphaseType.valueOf(System.getProperty("broadphase", DEFAULT_BROADPHASE.name()));
+        int narrowphaseThreads = Integer.getInteger("narrowphaseThreads", DEFAULT_NARROWPHASE_THREADS);
+
         // Create and start the game
-        Game game = new Game();
+        Game game = new Game(broadphaseType, narrowphaseThreads);
         game.start();
     }
 }
@@ -0,0 +1,63 @@
+package se.liu.thela038_filjo653;
+
+
+/**
+ * The eight directions that the character models are drawn in, numbered 0-7. Direction 0 faces down on the screen, and the numbers go
+ * counter clockwise on the screen: 2 faces right, 4 up and 6 left. Each direction covers the angles within PI/8 of it.
+ * <p>
+ * The direction of a vector is found by comparing its components against tan(PI/8), so no angle has to be calculated.
+ */
+public final class Octant
+{
+    /**
+     * The number of directions.
+     */
+    public static final int COUNT = 8;
+
+    public static final int DOWN = 0;
+    public static final int RIGHT = 2;
+    public static final int UP = 4;
+    public static final int LEFT = 6;
+
+    // A vector is closer to an axis than to a diagonal when the other component is at most tan(PI/8) times as long
+    private static final double TAN_PI_8 = Math.sqrt(2) - 1;
+    private static final double RADIANS_PER_OCTANT = Math.PI / 4;
+
+    private Octant() {}
+
+    /**
+     * Returns the direction that a vector points in. A vector of length 0 has the angle 0 and faces right, the same as a Rotation of 0.
+     *
+     * @param x The x component, to the right on the screen.
+     * @param y The y component, down on the screen.
+     *
+     * @return A direction between 0 and 7.
+     */
+    public static int fromVector(final double x, final double y) {
+	double absX = Math.abs(x);
+	double absY = Math.abs(y);
+	if (absY <= TAN_PI_8 * absX) {
+	    return x >= 0 ? RIGHT : LEFT;
+	}
+	if (absX <= TAN_PI_8 * absY) {
+	    return y > 0 ? DOWN : UP;
+	}
+	if (x > 0) {
+	    return y > 0 ? DOWN + 1 : RIGHT + 1;
+	}
+	return y < 0 ? UP + 1 : LEFT + 1;
+    }
+
+    /**
+     * Returns the direction closest to a rotation, where a rotation of 0 faces right and positive rotations turn clockwise on the screen.
+     *
+     * @param radians Any angle, it does not have to be between 0 and 2 PI.
+     *
+     * @return A direction between 0 and 7.
+     */
+    public static int fromRadians(final double radians) {
+	// The directions go the other way and start a quarter turn later
+	double octants = (Math.PI / 2 - radians) / RADIANS_PER_OCTANT;
+	return Math.floorMod((long) Math.floor(octants + 0.5), COUNT);
+    }
+}
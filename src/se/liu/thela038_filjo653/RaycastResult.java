@@ -0,0 +1,95 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Holds the hits of a raycast in EntityHandler, sorted on distance from the start of the ray. The same result can be passed to every
+ * raycast, so that casting does not allocate any new objects once the result has grown large enough.
+ */
+public class RaycastResult
+{
+    private static final int INITIAL_CAPACITY = 8;
+    private Entity[] entities = new Entity[INITIAL_CAPACITY];
+    private double[] distances = new double[INITIAL_CAPACITY];
+    private int size = 0;
+    private boolean allHits = false;
+    private double startX = 0;
+    private double startY = 0;
+    private double directionX = 0;
+    private double directionY = 0;
+
+    /**
+     * Removes all hits and sets the ray that the next hits belong to.
+     *
+     * @param allHits If false, only the closest hit is kept.
+     */
+    void reset(final double startX, final double startY, final double directionX, final double directionY, final boolean allHits) {
+	Arrays.fill(entities, 0, size, null);
+	size = 0;
+	this.startX = startX;
+	this.startY = startY;
+	this.directionX = directionX;
+	this.directionY = directionY;
+	this.allHits = allHits;
+    }
+
+    /**
+     * Adds a hit, keeping the hits sorted on distance. Hits at the same distance keep the order they were added in.
+     */
+    void addHit(final Entity entity, final double distance) {
+	if (!allHits) {
+	    if (size == 0 || distance < distances[0]) {
+		entities[0] = entity;
+		distances[0] = distance;
+		size = 1;
+	    }
+	    return;
+	}
+
+	if (size == entities.length) {
+	    entities = Arrays.copyOf(entities, size * 2);
+	    distances = Arrays.copyOf(distances, size * 2);
+	}
+	int position = size;
+	while (position > 0 && distances[position - 1] > distance) {
+	    entities[position] = entities[position - 1];
+	    distances[position] = distances[position - 1];
+	    position--;
+	}
+	entities[position] = entity;
+	distances[position] = distance;
+	size++;
+    }
+
+    public boolean hasHit() {
+	return size > 0;
+    }
+
+    /**
+     * Returns the number of hits. Is at most 1 if only the first hit was asked for.
+     */
+    public int size() {
+	return size;
+    }
+
+    public Entity getEntity(final int hitIndex) {
+	return entities[hitIndex];
+    }
+
+    /**
+     * Returns the distance from the start of the ray to where it enters the entity.
+     */
+    public double getDistance(final int hitIndex) {
+	return distances[hitIndex];
+    }
+
+    public double getHitX(final int hitIndex) {
+	return startX + directionX * distances[hitIndex];
+    }
+
+    public double getHitY(final int hitIndex) {
+	return startY + directionY * distances[hitIndex];
+    }
+}
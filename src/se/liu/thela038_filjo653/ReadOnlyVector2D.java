@@ -0,0 +1,40 @@
+package se.liu.thela038_filjo653;
+
+/**
+ * A view of a Vector2D that can be read but not changed. Objects can hand out their vectors through this interface instead of copying
+ * them, since the receiver can not change them. The values can still change if the owner of the vector changes it, so a caller that needs
+ * the values to stay the same has to copy the vector.
+ * <p>
+ * The vectors from Sprite.getPosition and Sprite.getSize are live views of the sprite's own vectors. They change whenever the sprite moves,
+ * also in the middle of a collision query or a collision response, so read the values that are needed right away or copy the vector
+ * before anything can move the sprite. A view must never be cast to Vector2D, since changing it would move the sprite without the entity
+ * handler knowing about it.
+ */
+public interface ReadOnlyVector2D
+{
+    public double getX();
+
+    public double getY();
+
+    /**
+     * Returns the length of the vector.
+     */
+    public double getLength();
+
+    /**
+     * Returns the squared length of the vector, which is enough for comparing lengths without a square root.
+     */
+    public double getLengthSquared();
+
+    /**
+     * Returns the angle of the vector in radians, between -PI and PI.
+     */
+    public double getAngleRadians();
+
+    /**
+     * Returns a new vector with the same values, that can be changed without affecting this vector.
+     *
+     * @return A new vector.
+     */
+    public Vector2D copy();
+}
@@ -8,6 +8,7 @@ import se.liu.thela038_filjo653.time.DeltaTimer;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
@@ -19,18 +20,23 @@ import java.util.Map;
 public class SpriteHandler
 {
     private BufferedImage background = null;
+    private SpriteTexture backgroundTexture = null;
     private final Map<SpriteLayer, List<Sprite>> spriteLayers;
+    private final Map<SpriteLayer, List<Sprite>> spriteLayerViews;
     private final Map<Sprite, DeltaTimer> timedSprites;
     private final List<Action> scheduledActions;
 
     public SpriteHandler() {
 	spriteLayers = new EnumMap<>(SpriteLayer.class);
+	spriteLayerViews = new EnumMap<>(SpriteLayer.class);
 	timedSprites = new HashMap<>();
 	scheduledActions = new ArrayList<>();
 
 	// Initialize all layers with an empty list.
 	for (SpriteLayer layer : SpriteLayer.values()) {
-	    spriteLayers.put(layer, new ArrayList<>());
+	    List<Sprite> sprites = new ArrayList<>();
+	    spriteLayers.put(layer, sprites);
+	    spriteLayerViews.put(layer, Collections.unmodifiableList(sprites));
 	}
     }
 
@@ -90,15 +96,17 @@ public class SpriteHandler
 
     public void setBackground(BufferedImage bg) {
 	background = bg;
+	backgroundTexture = new SpriteTexture(new Vector2D(), 0, background);
     }
 
     /**
-     * Gets the entire background texture.
+     * Gets the entire background texture. The same texture is returned until the background is changed, and it includes everything
+     * added with addToBackground.
      *
-     * @return Background texture.
+     * @return Background texture, or null if there is no background.
      */
     public SpriteTexture getBackgroundTexture() {
-	return new SpriteTexture(new Vector2D(), 0, background);
+	return backgroundTexture;
     }
 
     /**
@@ -142,21 +150,14 @@ public class SpriteHandler
     }
 
     /**
-     * Returns a list with all sprites on a given layer.
+     * Returns all sprites on a given layer. The background is not included, see getBackgroundTexture.
      *
      * @param layer Sprite layer.
      *
-     * @return A new list with sprites.
+     * @return A read only list with sprites, that is updated when sprites are added or removed.
      */
-    public Iterable<Sprite> getLayerIterator(SpriteLayer layer) {
-	if (layer == SpriteLayer.FIRST) {
-	    List<Sprite> sprites = new ArrayList<>();
-	    sprites.add(getBackgroundTexture());
-	    sprites.addAll(spriteLayers.get(layer));
-	    return sprites;
-	}
-
-	return new ArrayList<>(spriteLayers.get(layer));
+    public List<Sprite> getLayer(SpriteLayer layer) {
+	return spriteLayerViews.get(layer);
     }
 
     /**
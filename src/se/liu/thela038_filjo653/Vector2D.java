@@ -8,7 +8,7 @@ import java.util.Objects;
  * performing basic vector calculations or modifications. The vector is represented as a coordinate (x, y), and is always pointing from (0,
  * 0) to (x, y).
  */
-public class Vector2D
+public class Vector2D implements ReadOnlyVector2D
 {
     private double x;
     private double y;
@@ -28,11 +28,11 @@ public class Vector2D
 	this.y = Math.sin(direction.getRadians()) * length;
     }
 
-    public double getX() {
+    @Override public double getX() {
 	return x;
     }
 
-    public double getY() {
+    @Override public double getY() {
 	return y;
     }
 
@@ -45,13 +45,20 @@ public class Vector2D
 	return new Rotation(Math.atan2(y, x));
     }
 
+    /**
+     * Returns the angle of this vector in radians, between -PI and PI. Unlike getAngle, no Rotation is created.
+     */
+    @Override public double getAngleRadians() {
+	return Math.atan2(y, x);
+    }
+
     /**
      * Returns the length of this vector.
      *
      * @return length
      */
-    public double getLength() {
-	return Math.sqrt(Math.pow(x, 2) + Math.pow(y, 2));
+    @Override public double getLength() {
+	return Math.sqrt(x * x + y * y);
     }
 
     /**
@@ -59,9 +66,17 @@ public class Vector2D
      *
      * @param vector
      */
-    public void setTo(final Vector2D vector) {
-	x = vector.x;
-	y = vector.y;
+    public void setTo(final ReadOnlyVector2D vector) {
+	x = vector.getX();
+	y = vector.getY();
+    }
+
+    /**
+     * Sets both values of this vector.
+     */
+    public void set(final double x, final double y) {
+	this.x = x;
+	this.y = y;
     }
 
     public void setX(final double x) {
@@ -72,8 +87,6 @@ public class Vector2D
 	this.y = y;
     }
 
-    //These functions are unused but since Vector2D is a basic data type within this game, removing
-    //it's basic functions doesn't seem like a good idea, even though it's unused.
     public void addX(final double x) {
 	this.x += x;
     }
@@ -88,15 +101,8 @@ public class Vector2D
      * @param length New vector length.
      */
     public void setLength(double length) {
-	Rotation angle = getAngle();
-
-	// Don't update if already 0. To avoid floating-point rounding errors.
-	if (x != 0) {
-	    x = Math.cos(angle.getRadians()) * length;
-	}
-	if (y != 0) {
-	    y = Math.sin(angle.getRadians()) * length;
-	}
+	// Scaling keeps components that are 0 at exactly 0, without going through the angle
+	normalizeToLength(length);
     }
 
     /**
@@ -104,9 +110,61 @@ public class Vector2D
      *
      * @param vector
      */
-    public void add(Vector2D vector) {
-	x += vector.x;
-	y += vector.y;
+    public void add(ReadOnlyVector2D vector) {
+	x += vector.getX();
+	y += vector.getY();
+    }
+
+    /**
+     * Adds a vector multiplied by a factor to this vector, without creating the product as a new vector.
+     *
+     * @param vector
+     * @param factor
+     */
+    public void addScaled(ReadOnlyVector2D vector, double factor) {
+	x += vector.getX() * factor;
+	y += vector.getY() * factor;
+    }
+
+    /**
+     * Sets this vector to point from one vector to another. The same as pointAt, but without creating a new vector.
+     *
+     * @param from Vector to point from.
+     * @param to   Vector to point to.
+     */
+    public void setDifference(ReadOnlyVector2D from, ReadOnlyVector2D to) {
+	x = to.getX() - from.getX();
+	y = to.getY() - from.getY();
+    }
+
+    /**
+     * Scales this vector to the given length, keeping its direction. A vector of length 0 has no direction and is not changed.
+     *
+     * @param length New vector length.
+     */
+    public void normalizeToLength(double length) {
+	double currentLength = Math.sqrt(x * x + y * y);
+	if (currentLength > 0) {
+	    double scale = length / currentLength;
+	    x *= scale;
+	    y *= scale;
+	}
+    }
+
+    /**
+     * Returns the squared length of this vector, which is enough for comparing lengths without a square root.
+     */
+    @Override public double getLengthSquared() {
+	return x * x + y * y;
+    }
+
+    /**
+     * Returns the squared distance between the points that this vector and another vector point to.
+     */
+    public double distanceSquared(ReadOnlyVector2D vector) {
+	double dx = vector.getX() - x;
+	double dy = vector.getY() - y;
+	return dx * dx + dy * dy;
     }
 
 
@@ -115,7 +173,7 @@ public class Vector2D
      *
      * @return A new vector.
      */
-    public Vector2D copy() {
+    @Override public Vector2D copy() {
 	return new Vector2D(x, y);
     }
 
@@ -127,8 +185,8 @@ public class Vector2D
      *
      * @return A new vector.
      */
-    public static Vector2D getSum(Vector2D vector1, Vector2D vector2) {
-	return new Vector2D(vector1.x + vector2.x, vector1.y + vector2.y);
+    public static Vector2D getSum(ReadOnlyVector2D vector1, ReadOnlyVector2D vector2) {
+	return new Vector2D(vector1.getX() + vector2.getX(), vector1.getY() + vector2.getY());
     }
 
     /**
@@ -139,8 +197,8 @@ public class Vector2D
      *
      * @return A new vector.
      */
-    public static Vector2D getProduct(Vector2D vector, double factor) {
-	return new Vector2D(vector.x * factor, vector.y * factor);
+    public static Vector2D getProduct(ReadOnlyVector2D vector, double factor) {
+	return new Vector2D(vector.getX() * factor, vector.getY() * factor);
     }
 
     /**
@@ -151,8 +209,8 @@ public class Vector2D
      *
      * @return A new vector.
      */
-    public static Vector2D pointAt(Vector2D from, Vector2D to) {
-	return new Vector2D(to.x - from.x, to.y - from.y);
+    public static Vector2D pointAt(ReadOnlyVector2D from, ReadOnlyVector2D to) {
+	return new Vector2D(to.getX() - from.getX(), to.getY() - from.getY());
     }
 
     @Override public boolean equals(final Object o) {
@@ -0,0 +1,219 @@
+package se.liu.thela038_filjo653.collision;
+
+
+/**
+ * A bounding volume hierarchy of axis aligned bounding boxes, for geometry that never moves. The tree is built once from all boxes, and
+ * can then be queried for the boxes that overlap a given box without testing every box. Changing the geometry requires building a new
+ * tree.
+ */
+public class AabbTree
+{
+    private static final int LEAF_SIZE = 2;
+    private static final int NO_NODE = -1;
+
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+
+    // Nodes are stored in arrays. A leaf covers the range [first, first + count) of the item order, an inner node has two children.
+    private double[] nodeMinX;
+    private double[] nodeMinY;
+    private double[] nodeMaxX;
+    private double[] nodeMaxY;
+    private int[] nodeLeft;
+    private int[] nodeRight;
+    private int[] nodeFirst;
+    private int[] nodeCount;
+    private int nodeTotal = 0;
+
+    private int[] order;
+    private int[] stack;
+
+    /**
+     * Builds a tree from the given boxes. Each box is identified by its index in the arrays.
+     */
+    public AabbTree(final double[] minX, final double[] minY, final double[] maxX, final double[] maxY) {
+	this.minX = minX.clone();
+	this.minY = minY.clone();
+	this.maxX = maxX.clone();
+	this.maxY = maxY.clone();
+
+	int itemCount = minX.length;
+	order = new int[itemCount];
+	for (int i = 0; i < itemCount; i++) {
+	    order[i] = i;
+	}
+
+	// A tree with leaves of at least one item never has more than 2n - 1 nodes
+	int maxNodes = Math.max(1, 2 * itemCount - 1);
+	nodeMinX = new double[maxNodes];
+	nodeMinY = new double[maxNodes];
+	nodeMaxX = new double[maxNodes];
+	nodeMaxY = new double[maxNodes];
+	nodeLeft = new int[maxNodes];
+	nodeRight = new int[maxNodes];
+	nodeFirst = new int[maxNodes];
+	nodeCount = new int[maxNodes];
+	stack = new int[maxNodes];
+
+	if (itemCount > 0) {
+	    build(0, itemCount);
+	}
+    }
+
+    /**
+     * Finds all boxes that overlap the given box. Touching boxes counts as overlapping.
+     *
+     * @param result List that the indices of the found boxes are added to. It is not cleared first.
+     */
+    public void query(final double queryMinX, final double queryMinY, final double queryMaxX, final double queryMaxY,
+		      final IntList result)
+    {
+	if (nodeTotal == 0) {
+	    return;
+	}
+
+	int stackSize = 0;
+	stack[stackSize++] = 0;
+	while (stackSize > 0) {
+	    int node = stack[--stackSize];
+	    if (nodeMinX[node] > queryMaxX || queryMinX > nodeMaxX[node] || nodeMinY[node] > queryMaxY || queryMinY > nodeMaxY[node]) {
+		continue;
+	    }
+
+	    if (nodeLeft[node] == NO_NODE) {
+		for (int i = nodeFirst[node]; i < nodeFirst[node] + nodeCount[node]; i++) {
+		    int item = order[i];
+		    if (minX[item] <= queryMaxX && queryMinX <= maxX[item] && minY[item] <= queryMaxY && queryMinY <= maxY[item]) {
+			result.add(item);
+		    }
+		}
+	    } else {
+		stack[stackSize++] = nodeLeft[node];
+		stack[stackSize++] = nodeRight[node];
+	    }
+	}
+    }
+
+    /**
+     * Finds all boxes that a segment passes through or touches.
+     *
+     * @param result List that the indices of the found boxes are added to. It is not cleared first.
+     */
+    public void querySegment(final double startX, final double startY, final double deltaX, final double deltaY,
+			     final IntList result)
+    {
+	if (nodeTotal == 0) {
+	    return;
+	}
+
+	int stackSize = 0;
+	stack[stackSize++] = 0;
+	while (stackSize > 0) {
+	    int node = stack[--stackSize];
+	    if (!segmentTouchesBox(startX, startY, deltaX, deltaY, nodeMinX[node], nodeMinY[node], nodeMaxX[node], nodeMaxY[node])) {
+		continue;
+	    }
+
+	    if (nodeLeft[node] == NO_NODE) {
+		for (int i = nodeFirst[node]; i < nodeFirst[node] + nodeCount[node]; i++) {
+		    int item = order[i];
+		    if (segmentTouchesBox(startX, startY, deltaX, deltaY, minX[item], minY[item], maxX[item], maxY[item])) {
+			result.add(item);
+		    }
+		}
+	    } else {
+		stack[stackSize++] = nodeLeft[node];
+		stack[stackSize++] = nodeRight[node];
+	    }
+	}
+    }
+
+    /**
+     * Clips the segment against the two pairs of sides of the box, one axis at a time.
+     */
+    private static boolean segmentTouchesBox(final double startX, final double startY, final double deltaX, final double deltaY,
+					     final double boxMinX, final double boxMinY, final double boxMaxX, final double boxMaxY)
+    {
+	double enter = 0;
+	double exit = 1;
+	if (deltaX == 0) {
+	    if (startX < boxMinX || startX > boxMaxX) {
+		return false;
+	    }
+	} else {
+	    double timeMin = (boxMinX - startX) / deltaX;
+	    double timeMax = (boxMaxX - startX) / deltaX;
+	    enter = Math.max(enter, Math.min(timeMin, timeMax));
+	    exit = Math.min(exit, Math.max(timeMin, timeMax));
+	}
+	if (deltaY == 0) {
+	    if (startY < boxMinY || startY > boxMaxY) {
+		return false;
+	    }
+	} else {
+	    double timeMin = (boxMinY - startY) / deltaY;
+	    double timeMax = (boxMaxY - startY) / deltaY;
+	    enter = Math.max(enter, Math.min(timeMin, timeMax));
+	    exit = Math.min(exit, Math.max(timeMin, timeMax));
+	}
+	return enter <= exit;
+    }
+
+    /**
+     * Builds a node for a range of the item order, and all nodes below it.
+     *
+     * @return The index of the node.
+     */
+    private int build(final int first, final int end) {
+	int node = nodeTotal++;
+	nodeFirst[node] = first;
+	nodeCount[node] = end - first;
+	nodeLeft[node] = NO_NODE;
+	nodeRight[node] = NO_NODE;
+
+	nodeMinX[node] = Double.POSITIVE_INFINITY;
+	nodeMinY[node] = Double.POSITIVE_INFINITY;
+	nodeMaxX[node] = Double.NEGATIVE_INFINITY;
+	nodeMaxY[node] = Double.NEGATIVE_INFINITY;
+	for (int i = first; i < end; i++) {
+	    int item = order[i];
+	    nodeMinX[node] = Math.min(nodeMinX[node], minX[item]);
+	    nodeMinY[node] = Math.min(nodeMinY[node], minY[item]);
+	    nodeMaxX[node] = Math.max(nodeMaxX[node], maxX[item]);
+	    nodeMaxY[node] = Math.max(nodeMaxY[node], maxY[item]);
+	}
+
+	if (end - first <= LEAF_SIZE) {
+	    return node;
+	}
+
+	// Split on the middle of the longest side, with half of the items on each side
+	boolean splitOnX = nodeMaxX[node] - nodeMinX[node] >= nodeMaxY[node] - nodeMinY[node];
+	sortOnCenter(first, end, splitOnX);
+	int middle = (first + end) >>> 1;
+
+	nodeLeft[node] = build(first, middle);
+	nodeRight[node] = build(middle, end);
+	return node;
+    }
+
+    /**
+     * Sorts a range of the item order on the center of the boxes. The number of static boxes is small, so insertion sort is enough.
+     */
+    private void sortOnCenter(final int first, final int end, final boolean onX) {
+	double[] low = onX ? minX : minY;
+	double[] high = onX ? maxX : maxY;
+	for (int i = first + 1; i < end; i++) {
+	    int item = order[i];
+	    double center = low[item] + high[item];
+	    int j = i - 1;
+	    while (j >= first && low[order[j]] + high[order[j]] > center) {
+		order[j + 1] = order[j];
+		j--;
+	    }
+	    order[j + 1] = item;
+	}
+    }
+}
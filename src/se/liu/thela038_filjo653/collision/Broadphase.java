@@ -0,0 +1,28 @@
+package se.liu.thela038_filjo653.collision;
+
+/**
+ * Defines the first, rough, step of the collision detection. A broadphase is given the bounding box of every item each tick, and finds
+ * the pairs of items that might collide. The exact test of each pair is left to the caller.
+ */
+public interface Broadphase
+{
+    /**
+     * Removes all items.
+     */
+    public void clear();
+
+    /**
+     * Adds an item with the given bounding box. Items are given indices in the order they are inserted, starting at 0.
+     *
+     * @return The index of the new item.
+     */
+    public int insert(double minX, double minY, double maxX, double maxY);
+
+    /**
+     * Finds the pairs of items that might collide. The pairs must be sorted on the first index and then on the second index, with the
+     * first index always being the lower one, so that collisions are handled in the same order regardless of broadphase.
+     *
+     * @param pairs Buffer that the pairs are written to. It is cleared first.
+     */
+    public void findPairs(PairBuffer pairs);
+}
@@ -0,0 +1,25 @@
+package se.liu.thela038_filjo653.collision;
+
+
+/**
+ * The different broadphase implementations that can be selected when the game starts.
+ */
+public enum BroadphaseType
+{
+    BRUTE_FORCE, SPATIAL_HASH, SWEEP_AND_PRUNE;
+
+    private static final double GRID_CELL_SIZE = 128;
+
+    /**
+     * Creates a new broadphase of this type.
+     *
+     * @return A new broadphase.
+     */
+    public Broadphase create() {
+	return switch (this) {
+	    case BRUTE_FORCE -> new BruteForceBroadphase();
+	    case SPATIAL_HASH -> new SpatialHashGrid(GRID_CELL_SIZE);
+	    case SWEEP_AND_PRUNE -> new SweepAndPrune();
+	};
+    }
+}
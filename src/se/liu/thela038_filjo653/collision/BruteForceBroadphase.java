@@ -0,0 +1,28 @@
+package se.liu.thela038_filjo653.collision;
+
+/**
+ * Broadphase that returns every pair of items, without looking at their bounding boxes. This is how collisions were found before there
+ * was a broadphase, and is kept as a reference to compare the other broadphases against.
+ */
+public class BruteForceBroadphase implements Broadphase
+{
+    private int itemCount = 0;
+
+    @Override public void clear() {
+	itemCount = 0;
+    }
+
+    @Override public int insert(final double minX, final double minY, final double maxX, final double maxY) {
+	return itemCount++;
+    }
+
+    @Override public void findPairs(final PairBuffer pairs) {
+	pairs.clear();
+	// End at itemCount - 1, to avoid adding a pair twice. The last index will be covered by the second index.
+	for (int first = 0; first < itemCount - 1; first++) {
+	    for (int second = first + 1; second < itemCount; second++) {
+		pairs.add(first, second);
+	    }
+	}
+    }
+}
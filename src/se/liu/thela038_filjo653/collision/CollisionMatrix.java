@@ -0,0 +1,102 @@
+package se.liu.thela038_filjo653.collision;
+
+import se.liu.thela038_filjo653.resources.JsonReader;
+import se.liu.thela038_filjo653.sprites.CollisionType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Table of which collision types that react to each other. Every collision type is a layer, and has a mask of the layers it reacts to.
+ * Two entities only need to be tested for collision if at least one of them reacts to the other, all other pairs would only end up in the
+ * empty baseCollide and can be skipped before any geometry is tested.
+ * <p>
+ * The table is read from collision.json, where each collision type lists the types it reacts to. The file must be updated if an entity
+ * starts to react to a new type of entity.
+ */
+public class CollisionMatrix
+{
+    private static final Logger LOGGER = Logger.getLogger("");
+
+    /**
+     * Mask that contains every layer.
+     */
+    public static final int ALL_LAYERS = -1;
+
+    private final int[] masks = new int[CollisionType.values().length];
+
+    private CollisionMatrix() {
+    }
+
+    /**
+     * Creates a table where every type reacts to every other type, i.e no pairs are skipped.
+     *
+     * @return A new CollisionMatrix.
+     */
+    public static CollisionMatrix createAllowAll() {
+	CollisionMatrix matrix = new CollisionMatrix();
+	for (CollisionType type : CollisionType.values()) {
+	    for (CollisionType other : CollisionType.values()) {
+		matrix.setReacts(type, other);
+	    }
+	}
+	return matrix;
+    }
+
+    /**
+     * Loads the table from collision.json. If the file can not be read, no pairs are skipped, which is slower but gives the same result.
+     *
+     * @return A new CollisionMatrix.
+     */
+    public static CollisionMatrix load() {
+	try {
+	    return fromJson(JsonReader.readJson(JsonReader.VALUES.COLLISION));
+	} catch (IOException | IllegalArgumentException e) {
+	    // If the table is broken the game still works without it, so the error is logged and all pairs are tested instead
+	    LOGGER.log(Level.WARNING, e.toString(), e);
+	    return createAllowAll();
+	}
+    }
+
+    private static CollisionMatrix fromJson(final Map<?, ?> json) {
+	CollisionMatrix matrix = new CollisionMatrix();
+	for (Map.Entry<?, ?> entry : json.entrySet()) {
+	    CollisionType type = CollisionType.valueOf((String) entry.getKey());
+	    if (!(entry.getValue() instanceof List<?>)) {
+		throw new IllegalArgumentException("Expected a list of collision types for " + type);
+	    }
+	    for (Object other : (List<?>) entry.getValue()) {
+		matrix.setReacts(type, CollisionType.valueOf((String) other));
+	    }
+	}
+	return matrix;
+    }
+
+    private void setReacts(final CollisionType type, final CollisionType other) {
+	masks[type.ordinal()] |= layer(other);
+    }
+
+    /**
+     * Returns the layer bit of a collision type. Layers of several types can be combined with | into a mask.
+     */
+    public static int layer(final CollisionType type) {
+	return 1 << type.ordinal();
+    }
+
+    /**
+     * Checks if entities of a type react when colliding with entities of another type.
+     */
+    public boolean reactsTo(final CollisionType type, final CollisionType other) {
+	return (masks[type.ordinal()] & layer(other)) != 0;
+    }
+
+    /**
+     * Checks if a pair of entities needs to be tested for collision, i.e if any of them reacts to the other.
+     */
+    public boolean canCollide(final CollisionType first, final CollisionType second) {
+	return reactsTo(first, second) || reactsTo(second, first);
+    }
+}
@@ -0,0 +1,437 @@
+package se.liu.thela038_filjo653.collision;
+
+import se.liu.thela038_filjo653.Vector2D;
+
+/**
+ * The shape that an entity collides with. A shape is either an axis aligned rectangle or an axis aligned ellipse (a circle is an ellipse
+ * with the same width and height), described by the bounding box of the shape. Overlaps between shapes are calculated directly from the
+ * geometry, instead of building and intersecting an Area.
+ * <p>
+ * Shapes are mutable, so that an entity can reuse the same shape object every tick.
+ */
+public class CollisionShape
+{
+    /**
+     * The kinds of shapes that are supported.
+     */
+    public enum Type
+    {
+	RECTANGLE, ELLIPSE
+    }
+
+    // Bisection steps when finding the closest point on an ellipse. Each step halves the interval, so this is enough to reach the
+    // precision of a double.
+    private static final int ELLIPSE_DISTANCE_ITERATIONS = 64;
+
+    /**
+     * Returned by sweep when the shapes do not overlap during the movement.
+     */
+    public static final double NO_CONTACT = Double.POSITIVE_INFINITY;
+
+    private Type type = Type.RECTANGLE;
+    private double x = 0;
+    private double y = 0;
+    private double width = 0;
+    private double height = 0;
+
+    /**
+     * Makes this shape a rectangle with the given bounds.
+     */
+    public void setRectangle(final double x, final double y, final double width, final double height) {
+	set(Type.RECTANGLE, x, y, width, height);
+    }
+
+    /**
+     * Makes this shape an ellipse that fits inside the given bounds.
+     */
+    public void setEllipse(final double x, final double y, final double width, final double height) {
+	set(Type.ELLIPSE, x, y, width, height);
+    }
+
+    void set(final Type type, final double x, final double y, final double width, final double height) {
+	this.type = type;
+	this.x = x;
+	this.y = y;
+	this.width = width;
+	this.height = height;
+    }
+
+    public Type getType() {
+	return type;
+    }
+
+    public double getMinX() {
+	return x;
+    }
+
+    public double getMinY() {
+	return y;
+    }
+
+    public double getMaxX() {
+	return x + width;
+    }
+
+    public double getMaxY() {
+	return y + height;
+    }
+
+    public double getWidth() {
+	return width;
+    }
+
+    public double getHeight() {
+	return height;
+    }
+
+    public double getCenterX() {
+	return x + width / 2;
+    }
+
+    public double getCenterY() {
+	return y + height / 2;
+    }
+
+    /**
+     * Checks if the shape has no area, in which case it can not overlap anything.
+     */
+    public boolean isEmpty() {
+	return width <= 0 || height <= 0;
+    }
+
+    /**
+     * Checks if this shape overlaps another shape. Shapes that only touch each other do not overlap, the same as when intersecting two
+     * Areas.
+     *
+     * @param other Shape to test against.
+     *
+     * @return true if the shapes overlap.
+     */
+    public boolean intersects(final CollisionShape other) {
+	if (isEmpty() || other.isEmpty() || !boundsIntersect(other)) {
+	    return false;
+	}
+
+	if (type == Type.RECTANGLE && other.type == Type.RECTANGLE) {
+	    // Overlapping bounds is enough for two rectangles
+	    return true;
+	} else if (type == Type.ELLIPSE && other.type == Type.ELLIPSE) {
+	    return ellipseIntersectsEllipse(this, other);
+	} else if (type == Type.ELLIPSE) {
+	    return ellipseIntersectsRectangle(this, other);
+	} else {
+	    return ellipseIntersectsRectangle(other, this);
+	}
+    }
+
+    /**
+     * Finds a short movement that moves this shape out of an obstacle, so that they only touch. The movement points away from the
+     * obstacle, so movement along the side of the obstacle is kept and a shape that is pushed against it slides along it.
+     * <p>
+     * Two rectangles are moved apart along the axis with the least overlap. An ellipse is moved out of a rectangle along the direction
+     * from the closest point of the rectangle, in the space where the ellipse is a unit circle. Two ellipses are moved apart along the
+     * line between the centers, as if the sum of them were an ellipse with the sum of the radii. That is exact for circles, and for other
+     * ellipses the shapes can still overlap slightly afterwards.
+     *
+     * @param obstacle Shape to move out of.
+     * @param result   Vector that the movement is stored in. Not changed if the shapes do not overlap.
+     *
+     * @return true if the shapes overlap.
+     */
+    public boolean findSeparation(final CollisionShape obstacle, final Vector2D result) {
+	if (!intersects(obstacle)) {
+	    return false;
+	}
+
+	if (type == Type.RECTANGLE && obstacle.type == Type.RECTANGLE) {
+	    separateRectangles(this, obstacle, result);
+	} else if (type == Type.ELLIPSE && obstacle.type == Type.ELLIPSE) {
+	    separateEllipses(this, obstacle, result);
+	} else if (type == Type.ELLIPSE) {
+	    separateEllipseFromRectangle(this, obstacle, result);
+	} else {
+	    // Moving the rectangle the opposite way separates the shapes by the same amount
+	    separateEllipseFromRectangle(obstacle, this, result);
+	    result.setX(-result.getX());
+	    result.setY(-result.getY());
+	}
+	return true;
+    }
+
+    private static void separateRectangles(final CollisionShape moving, final CollisionShape obstacle, final Vector2D result) {
+	double left = moving.getMaxX() - obstacle.x;
+	double right = obstacle.getMaxX() - moving.x;
+	double up = moving.getMaxY() - obstacle.y;
+	double down = obstacle.getMaxY() - moving.y;
+	setShortest(left, right, up, down, result);
+    }
+
+    private static void separateEllipseFromRectangle(final CollisionShape ellipse, final CollisionShape rectangle,
+						     final Vector2D result)
+    {
+	double radiusX = ellipse.width / 2;
+	double radiusY = ellipse.height / 2;
+	double centerX = ellipse.getCenterX();
+	double centerY = ellipse.getCenterY();
+
+	double closestX = clamp(centerX, rectangle.x, rectangle.x + rectangle.width);
+	double closestY = clamp(centerY, rectangle.y, rectangle.y + rectangle.height);
+	double dx = (centerX - closestX) / radiusX;
+	double dy = (centerY - closestY) / radiusY;
+	double distance = Math.sqrt(dx * dx + dy * dy);
+
+	if (distance == 0) {
+	    // The center is inside the rectangle, so the ellipse is moved out through the closest side
+	    double left = centerX - rectangle.x + radiusX;
+	    double right = rectangle.getMaxX() - centerX + radiusX;
+	    double up = centerY - rectangle.y + radiusY;
+	    double down = rectangle.getMaxY() - centerY + radiusY;
+	    setShortest(left, right, up, down, result);
+	    return;
+	}
+
+	// Moving the unit circle out to distance 1 from the closest point, and scaling the movement back
+	double scale = (1 - distance) / distance;
+	result.setX(dx * scale * radiusX);
+	result.setY(dy * scale * radiusY);
+    }
+
+    private static void separateEllipses(final CollisionShape moving, final CollisionShape obstacle, final Vector2D result) {
+	double radiusX = (moving.width + obstacle.width) / 2;
+	double radiusY = (moving.height + obstacle.height) / 2;
+	double dx = (moving.getCenterX() - obstacle.getCenterX()) / radiusX;
+	double dy = (moving.getCenterY() - obstacle.getCenterY()) / radiusY;
+	double distance = Math.sqrt(dx * dx + dy * dy);
+
+	if (distance == 0) {
+	    // Same center, so any direction works
+	    result.setX(radiusX);
+	    result.setY(0);
+	    return;
+	}
+
+	double scale = (1 - distance) / distance;
+	result.setX(dx * scale * radiusX);
+	result.setY(dy * scale * radiusY);
+    }
+
+    /**
+     * Stores the shortest of the four axis aligned movements, given as the distances to move left, right, up and down.
+     */
+    private static void setShortest(final double left, final double right, final double up, final double down, final Vector2D result) {
+	double x = left < right ? -left : right;
+	double y = up < down ? -up : down;
+	if (Math.abs(x) <= Math.abs(y)) {
+	    result.setX(x);
+	    result.setY(0);
+	} else {
+	    result.setX(0);
+	    result.setY(y);
+	}
+    }
+
+    /**
+     * Finds when a shape that moves in a straight line first overlaps this shape. This catches overlaps that happen between the start and
+     * the end of the movement, which intersects misses when the shape moves further than its own size.
+     * <p>
+     * The moving shape is treated as its bounding box, and the path of its center is tested against this shape grown by half the size of
+     * the box. For a rectangle that is exact. For an ellipse the radii are grown instead, which misses the corners of the moving box, so
+     * this should only be used for moving shapes that are small compared to the ellipse, like bullets.
+     *
+     * @param moving Shape at the end of the movement.
+     * @param deltaX Distance moved along the x axis.
+     * @param deltaY Distance moved along the y axis.
+     *
+     * @return Time of the first overlap as a fraction of the movement, between 0 and 1, or NO_CONTACT.
+     */
+    public double sweep(final CollisionShape moving, final double deltaX, final double deltaY) {
+	if (isEmpty() || moving.isEmpty()) {
+	    return NO_CONTACT;
+	}
+
+	double halfWidth = moving.width / 2;
+	double halfHeight = moving.height / 2;
+	double startX = moving.getCenterX() - deltaX;
+	double startY = moving.getCenterY() - deltaY;
+
+	if (type == Type.RECTANGLE) {
+	    return segmentEntersRectangle(startX, startY, deltaX, deltaY, x - halfWidth, y - halfHeight, x + width + halfWidth,
+					  y + height + halfHeight);
+	}
+	return segmentEntersEllipse(startX - getCenterX(), startY - getCenterY(), deltaX, deltaY, width / 2 + halfWidth,
+				    height / 2 + halfHeight);
+    }
+
+    /**
+     * Finds where a segment first enters this shape.
+     *
+     * @return Time of the first overlap as a fraction of the segment, between 0 and 1, or NO_CONTACT. A segment that starts inside the
+     * shape enters it at 0.
+     */
+    public double raycast(final double startX, final double startY, final double deltaX, final double deltaY) {
+	if (isEmpty()) {
+	    return NO_CONTACT;
+	}
+	if (type == Type.RECTANGLE) {
+	    return segmentEntersRectangle(startX, startY, deltaX, deltaY, x, y, x + width, y + height);
+	}
+	return segmentEntersEllipse(startX - getCenterX(), startY - getCenterY(), deltaX, deltaY, width / 2, height / 2);
+    }
+
+    /**
+     * Finds where a segment enters a rectangle by clipping it against the two pairs of sides, one axis at a time.
+     */
+    private static double segmentEntersRectangle(final double startX, final double startY, final double deltaX, final double deltaY,
+						 final double minX, final double minY, final double maxX, final double maxY)
+    {
+	double enter = 0;
+	double exit = 1;
+
+	if (deltaX == 0) {
+	    if (startX <= minX || startX >= maxX) {
+		return NO_CONTACT;
+	    }
+	} else {
+	    double timeMin = (minX - startX) / deltaX;
+	    double timeMax = (maxX - startX) / deltaX;
+	    enter = Math.max(enter, Math.min(timeMin, timeMax));
+	    exit = Math.min(exit, Math.max(timeMin, timeMax));
+	}
+
+	if (deltaY == 0) {
+	    if (startY <= minY || startY >= maxY) {
+		return NO_CONTACT;
+	    }
+	} else {
+	    double timeMin = (minY - startY) / deltaY;
+	    double timeMax = (maxY - startY) / deltaY;
+	    enter = Math.max(enter, Math.min(timeMin, timeMax));
+	    exit = Math.min(exit, Math.max(timeMin, timeMax));
+	}
+
+	// A segment that only touches the rectangle does not overlap it
+	return enter < exit ? enter : NO_CONTACT;
+    }
+
+    /**
+     * Finds where a segment enters an ellipse centered at the origin. The space is scaled so that the ellipse becomes a unit circle, and
+     * the segment is solved against the circle.
+     */
+    private static double segmentEntersEllipse(final double startX, final double startY, final double deltaX, final double deltaY,
+					       final double radiusX, final double radiusY)
+    {
+	double px = startX / radiusX;
+	double py = startY / radiusY;
+	double dx = deltaX / radiusX;
+	double dy = deltaY / radiusY;
+
+	double c = px * px + py * py - 1;
+	if (c < 0) {
+	    // Starts inside
+	    return 0;
+	}
+
+	// |p + t d|^2 = 1 gives a t^2 + b t + c = 0
+	double a = dx * dx + dy * dy;
+	double b = 2 * (px * dx + py * dy);
+	double discriminant = b * b - 4 * a * c;
+	if (a == 0 || discriminant <= 0) {
+	    return NO_CONTACT;
+	}
+
+	// The start is outside, so both roots have the same sign and the smaller one is where the segment enters
+	double time = (-b - Math.sqrt(discriminant)) / (2 * a);
+	return time >= 0 && time < 1 ? time : NO_CONTACT;
+    }
+
+    private boolean boundsIntersect(final CollisionShape other) {
+	return x < other.x + other.width && other.x < x + width && y < other.y + other.height && other.y < y + height;
+    }
+
+    /**
+     * Tests an ellipse against a rectangle. Scaling the space so that the ellipse becomes a unit circle keeps the rectangle axis aligned,
+     * so the closest point on the rectangle to the center can be found by clamping.
+     */
+    private static boolean ellipseIntersectsRectangle(final CollisionShape ellipse, final CollisionShape rectangle) {
+	double radiusX = ellipse.width / 2;
+	double radiusY = ellipse.height / 2;
+	double centerX = ellipse.getCenterX();
+	double centerY = ellipse.getCenterY();
+
+	double closestX = clamp(centerX, rectangle.x, rectangle.x + rectangle.width);
+	double closestY = clamp(centerY, rectangle.y, rectangle.y + rectangle.height);
+	double dx = (closestX - centerX) / radiusX;
+	double dy = (closestY - centerY) / radiusY;
+	return dx * dx + dy * dy < 1;
+    }
+
+    /**
+     * Tests two ellipses against each other. Circles are tested with the distance between the centers. Otherwise the space is scaled so
+     * that the first ellipse becomes a unit circle, and the distance from its center to the other ellipse decides the overlap.
+     */
+    private static boolean ellipseIntersectsEllipse(final CollisionShape first, final CollisionShape second) {
+	double dx = second.getCenterX() - first.getCenterX();
+	double dy = second.getCenterY() - first.getCenterY();
+
+	if (first.width == first.height && second.width == second.height) {
+	    double radii = (first.width + second.width) / 2;
+	    return dx * dx + dy * dy < radii * radii;
+	}
+
+	double scaleX = 2 / first.width;
+	double scaleY = 2 / first.height;
+	double radiusX = second.width / 2 * scaleX;
+	double radiusY = second.height / 2 * scaleY;
+
+	// The point is the first center relative to the second center, in the scaled space
+	return distanceSquaredToEllipse(-dx * scaleX, -dy * scaleY, radiusX, radiusY) < 1;
+    }
+
+    /**
+     * Returns the squared distance from a point to a filled, axis aligned ellipse centered at the origin. Points inside the ellipse have
+     * distance 0.
+     * <p>
+     * The closest point on the ellipse is (a^2 x / (t + a^2), b^2 y / (t + b^2)) where t is the root of F(t) = (a x / (t + a^2))^2 + (b y
+     * / (t + b^2))^2 - 1. F is decreasing for t >= 0, so the root is found with bisection.
+     */
+    private static double distanceSquaredToEllipse(final double pointX, final double pointY, final double radiusX,
+						   final double radiusY)
+    {
+	// The ellipse is symmetric, so it is enough to look at the first quadrant
+	double px = Math.abs(pointX);
+	double py = Math.abs(pointY);
+	double normalizedX = px / radiusX;
+	double normalizedY = py / radiusY;
+	if (normalizedX * normalizedX + normalizedY * normalizedY <= 1) {
+	    return 0;
+	}
+
+	double radiusX2 = radiusX * radiusX;
+	double radiusY2 = radiusY * radiusY;
+	double low = 0;
+	double high = Math.sqrt(radiusX2 * px * px + radiusY2 * py * py);
+	for (int i = 0; i < ELLIPSE_DISTANCE_ITERATIONS; i++) {
+	    double t = (low + high) / 2;
+	    double fx = radiusX * px / (t + radiusX2);
+	    double fy = radiusY * py / (t + radiusY2);
+	    if (fx * fx + fy * fy > 1) {
+		low = t;
+	    } else {
+		high = t;
+	    }
+	}
+
+	double t = (low + high) / 2;
+	double dx = radiusX2 * px / (t + radiusX2) - px;
+	double dy = radiusY2 * py / (t + radiusY2) - py;
+	return dx * dx + dy * dy;
+    }
+
+    private static double clamp(final double value, final double min, final double max) {
+	return Math.max(min, Math.min(max, value));
+    }
+
+    @Override public String toString() {
+	return "CollisionShape{" + "type=" + type + ", x=" + x + ", y=" + y + ", width=" + width + ", height=" + height + '}';
+    }
+}
@@ -0,0 +1,64 @@
+package se.liu.thela038_filjo653.collision;
+
+/**
+ * Counters for the collision detection during the last tick, for seeing how much work each step saves.
+ */
+public class CollisionStats
+{
+    private int candidatePairs = 0;
+    private int culledPairs = 0;
+    private int testedPairs = 0;
+    private int contacts = 0;
+
+    /**
+     * Sets all counters to 0. Should be called at the start of every tick.
+     */
+    public void reset() {
+	candidatePairs = 0;
+	culledPairs = 0;
+	testedPairs = 0;
+	contacts = 0;
+    }
+
+    /**
+     * Counts a pair that the broadphase found. It is either culled or tested.
+     *
+     * @param culled true if the pair was skipped because none of the entities react to the other.
+     */
+    public void addCandidate(final boolean culled) {
+	candidatePairs++;
+	if (culled) {
+	    culledPairs++;
+	} else {
+	    testedPairs++;
+	}
+    }
+
+    /**
+     * Counts a tested pair that collided.
+     */
+    public void addContact() {
+	contacts++;
+    }
+
+    public int getCandidatePairs() {
+	return candidatePairs;
+    }
+
+    public int getCulledPairs() {
+	return culledPairs;
+    }
+
+    public int getTestedPairs() {
+	return testedPairs;
+    }
+
+    public int getContacts() {
+	return contacts;
+    }
+
+    @Override public String toString() {
+	return "CollisionStats{" + "candidatePairs=" + candidatePairs + ", culledPairs=" + culledPairs + ", testedPairs=" + testedPairs +
+	       ", contacts=" + contacts + '}';
+    }
+}
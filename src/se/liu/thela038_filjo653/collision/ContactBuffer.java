@@ -0,0 +1,91 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * Class for storing pairs of item indices that collide, together with the time of the first contact during the tick. The contacts can be
+ * sorted on time, so that they are handled in the order they happened. The buffer is reused between ticks in the same way as PairBuffer.
+ */
+public class ContactBuffer
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private int[] first = new int[INITIAL_CAPACITY];
+    private int[] second = new int[INITIAL_CAPACITY];
+    private double[] times = new double[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] mergeBuffer = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a contact to the buffer. Contacts are in the order they were added until sortByTime is called.
+     *
+     * @param firstIndex  Index of the first item.
+     * @param secondIndex Index of the second item.
+     * @param time        Time of the first contact, as a fraction of the tick.
+     */
+    public void add(final int firstIndex, final int secondIndex, final double time) {
+	if (size == first.length) {
+	    int newLength = size * 2;
+	    first = Arrays.copyOf(first, newLength);
+	    second = Arrays.copyOf(second, newLength);
+	    times = Arrays.copyOf(times, newLength);
+	    order = Arrays.copyOf(order, newLength);
+	    mergeBuffer = Arrays.copyOf(mergeBuffer, newLength);
+	}
+	first[size] = firstIndex;
+	second[size] = secondIndex;
+	times[size] = time;
+	order[size] = size;
+	size++;
+    }
+
+    /**
+     * Sorts the contacts on time. Contacts with the same time keep the order they were added in.
+     */
+    public void sortByTime() {
+	mergeSort(0, size);
+    }
+
+    private void mergeSort(final int from, final int to) {
+	if (to - from < 2) {
+	    return;
+	}
+	int middle = (from + to) >>> 1;
+	mergeSort(from, middle);
+	mergeSort(middle, to);
+
+	System.arraycopy(order, from, mergeBuffer, from, to - from);
+	int left = from;
+	int right = middle;
+	for (int i = from; i < to; i++) {
+	    if (right >= to || (left < middle && times[mergeBuffer[left]] <= times[mergeBuffer[right]])) {
+		order[i] = mergeBuffer[left++];
+	    } else {
+		order[i] = mergeBuffer[right++];
+	    }
+	}
+    }
+
+    /**
+     * Removes all contacts from the buffer.
+     */
+    public void clear() {
+	size = 0;
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public int getFirst(final int contactIndex) {
+	return first[order[contactIndex]];
+    }
+
+    public int getSecond(final int contactIndex) {
+	return second[order[contactIndex]];
+    }
+
+    public double getTime(final int contactIndex) {
+	return times[order[contactIndex]];
+    }
+}
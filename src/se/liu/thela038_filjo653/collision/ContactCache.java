@@ -0,0 +1,120 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of which pairs of items that are in contact from one tick to the next, so that a contact can be told apart as new, staying
+ * or ended. Items are identified by ints that are never negative and never reused for another item, e.g entity handles. The buffers are
+ * reused between ticks so that no new objects are allocated once they have grown large enough.
+ * <p>
+ * Contacts are added during a tick, and endTick is called when all contacts of the tick have been added. The contacts of the previous tick
+ * are kept sorted, so looking up a pair is a binary search.
+ */
+public class ContactCache
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BITS_PER_ITEM = 32;
+    private static final long ITEM_MASK = 0xFFFFFFFFL;
+
+    private long[] previous = new long[INITIAL_CAPACITY];
+    private int previousSize = 0;
+    private long[] current = new long[INITIAL_CAPACITY];
+    private int currentSize = 0;
+    private long[] ended = new long[INITIAL_CAPACITY];
+    private int endedSize = 0;
+
+    /**
+     * Adds a contact for this tick.
+     *
+     * @return True if the pair was in contact during the previous tick as well, false if the contact is new.
+     */
+    public boolean add(final int item1, final int item2) {
+	long key = getKey(item1, item2);
+	if (currentSize == current.length) {
+	    current = Arrays.copyOf(current, currentSize * 2);
+	}
+	current[currentSize++] = key;
+	return Arrays.binarySearch(previous, 0, previousSize, key) >= 0;
+    }
+
+    /**
+     * Ends the tick. The contacts of the previous tick that were not added again become the ended contacts, and the contacts of this tick
+     * become the previous contacts.
+     */
+    public void endTick() {
+	Arrays.sort(current, 0, currentSize);
+
+	// Both lists are sorted, so the ended contacts are found by going through them side by side
+	endedSize = 0;
+	int currentIndex = 0;
+	for (int previousIndex = 0; previousIndex < previousSize; previousIndex++) {
+	    long key = previous[previousIndex];
+	    while (currentIndex < currentSize && current[currentIndex] < key) {
+		currentIndex++;
+	    }
+	    if (currentIndex == currentSize || current[currentIndex] != key) {
+		if (endedSize == ended.length) {
+		    ended = Arrays.copyOf(ended, endedSize * 2);
+		}
+		ended[endedSize++] = key;
+	    }
+	}
+
+	long[] swap = previous;
+	previous = current;
+	previousSize = currentSize;
+	current = swap;
+	currentSize = 0;
+    }
+
+    /**
+     * Ends the contacts of the previous tick that any of the items are part of, e.g because the items are removed. They replace the ended
+     * contacts of the last tick, and are not ended again by the next call to endTick.
+     */
+    public void endContactsOf(final IntSet items) {
+	endedSize = 0;
+	int keptSize = 0;
+	for (int i = 0; i < previousSize; i++) {
+	    long key = previous[i];
+	    if (items.contains((int) (key >>> BITS_PER_ITEM)) || items.contains((int) (key & ITEM_MASK))) {
+		if (endedSize == ended.length) {
+		    ended = Arrays.copyOf(ended, endedSize * 2);
+		}
+		ended[endedSize++] = key;
+	    } else {
+		previous[keptSize++] = key;
+	    }
+	}
+	previousSize = keptSize;
+    }
+
+    /**
+     * Returns the number of contacts that ended in the last tick, or in the last call to endContactsOf.
+     */
+    public int getEndedCount() {
+	return endedSize;
+    }
+
+    /**
+     * Returns the lower item of a contact that ended in the last tick.
+     */
+    public int getEndedFirst(final int index) {
+	return (int) (ended[index] >>> BITS_PER_ITEM);
+    }
+
+    /**
+     * Returns the higher item of a contact that ended in the last tick.
+     */
+    public int getEndedSecond(final int index) {
+	return (int) (ended[index] & ITEM_MASK);
+    }
+
+    /**
+     * The lower item is placed in the high bits, so that the key is the same whichever order the items come in.
+     */
+    private static long getKey(final int item1, final int item2) {
+	int low = Math.min(item1, item2);
+	int high = Math.max(item1, item2);
+	return ((long) low << BITS_PER_ITEM) | high;
+    }
+}
@@ -0,0 +1,39 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ints that is reused between ticks, so that queries can return results without boxing or allocating new lists.
+ */
+public class IntList
+{
+    private static final int INITIAL_CAPACITY = 16;
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public void add(final int value) {
+	if (size == values.length) {
+	    values = Arrays.copyOf(values, size * 2);
+	}
+	values[size++] = value;
+    }
+
+    public int get(final int index) {
+	return values[index];
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public void clear() {
+	size = 0;
+    }
+
+    /**
+     * Sorts the values in ascending order.
+     */
+    public void sort() {
+	Arrays.sort(values, 0, size);
+    }
+}
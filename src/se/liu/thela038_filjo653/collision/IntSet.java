@@ -0,0 +1,103 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints with open addressing, that is reused instead of allocating new sets. Values are kept in a single array, and a value is
+ * found by hashing it to a slot and going forward until the value or an empty slot is found. The array is kept at most half full, so only
+ * a few slots are looked at.
+ * <p>
+ * Nothing is allocated when values are added, except when the array grows.
+ */
+public class IntSet
+{
+    private static final int INITIAL_CAPACITY = 16;
+    // Marks empty slots. The value itself is kept in a separate flag, so that every int can be added.
+    private static final int EMPTY = Integer.MIN_VALUE;
+    // Fibonacci hashing spreads handles, which often only differ in the low bits, over the whole table
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private int[] slots = createSlots(INITIAL_CAPACITY);
+    private int mask = INITIAL_CAPACITY - 1;
+    private int shift = Integer.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    private int size = 0;
+    private boolean containsEmpty = false;
+
+    private static int[] createSlots(final int capacity) {
+	int[] slots = new int[capacity];
+	Arrays.fill(slots, EMPTY);
+	return slots;
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @return True if the value was added, false if it was already in the set.
+     */
+    public boolean add(final int value) {
+	if (value == EMPTY) {
+	    if (containsEmpty) {
+		return false;
+	    }
+	    containsEmpty = true;
+	    size++;
+	    return true;
+	}
+
+	int slot = findSlot(value);
+	if (slots[slot] == value) {
+	    return false;
+	}
+	slots[slot] = value;
+	size++;
+	if (size * 2 > slots.length) {
+	    grow();
+	}
+	return true;
+    }
+
+    public boolean contains(final int value) {
+	if (value == EMPTY) {
+	    return containsEmpty;
+	}
+	return slots[findSlot(value)] == value;
+    }
+
+    public int size() {
+	return size;
+    }
+
+    /**
+     * Removes all values. The array is kept, so a set that is reused does not allocate again.
+     */
+    public void clear() {
+	if (size > 0) {
+	    Arrays.fill(slots, EMPTY);
+	    size = 0;
+	    containsEmpty = false;
+	}
+    }
+
+    /**
+     * Returns the slot that holds the value, or the empty slot where it should be added.
+     */
+    private int findSlot(final int value) {
+	int slot = (value * HASH_MULTIPLIER) >>> shift;
+	while (slots[slot] != EMPTY && slots[slot] != value) {
+	    slot = (slot + 1) & mask;
+	}
+	return slot;
+    }
+
+    private void grow() {
+	int[] oldSlots = slots;
+	slots = createSlots(oldSlots.length * 2);
+	mask = slots.length - 1;
+	shift--;
+	for (int value : oldSlots) {
+	    if (value != EMPTY) {
+		slots[findSlot(value)] = value;
+	    }
+	}
+    }
+}
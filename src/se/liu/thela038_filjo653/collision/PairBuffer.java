@@ -0,0 +1,50 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * Class for storing pairs of item indices that might collide. The buffer is reused between ticks so that finding pairs does not allocate
+ * any new objects once the buffer has grown large enough.
+ */
+public class PairBuffer
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private int[] first = new int[INITIAL_CAPACITY];
+    private int[] second = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a pair to the buffer.
+     *
+     * @param firstIndex  Index of the first item, should be lower than secondIndex.
+     * @param secondIndex Index of the second item.
+     */
+    public void add(final int firstIndex, final int secondIndex) {
+	if (size == first.length) {
+	    first = Arrays.copyOf(first, size * 2);
+	    second = Arrays.copyOf(second, size * 2);
+	}
+	first[size] = firstIndex;
+	second[size] = secondIndex;
+	size++;
+    }
+
+    /**
+     * Removes all pairs from the buffer.
+     */
+    public void clear() {
+	size = 0;
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public int getFirst(final int pairIndex) {
+	return first[pairIndex];
+    }
+
+    public int getSecond(final int pairIndex) {
+	return second[pairIndex];
+    }
+}
@@ -0,0 +1,105 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tests a list of pairs for overlap on several threads. The tests only read the shapes, so they are independent of each other and can be
+ * run in any order. The results are stored per pair, and it is up to the caller to act on them in the order of the pairs.
+ */
+public class ParallelNarrowphase
+{
+    // Below this many pairs a task is not split further, since starting the task would cost more than the tests themselves
+    private static final int PAIRS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+    private boolean[] overlaps = new boolean[PAIRS_PER_TASK];
+
+    /**
+     * @param parallelism Number of threads to run the tests on.
+     */
+    public ParallelNarrowphase(final int parallelism) {
+	pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Stops the threads of the pool. The narrowphase must not be used after this.
+     */
+    public void shutdown() {
+	pool.shutdown();
+    }
+
+    public int getParallelism() {
+	return pool.getParallelism();
+    }
+
+    /**
+     * Tests all pairs for overlap and waits until all tests are done. The shapes must not be changed until this method returns.
+     *
+     * @param firstShapes  Shapes that the first index of each pair refers to.
+     * @param secondShapes Shapes that the second index of each pair refers to, can be the same buffer as firstShapes.
+     * @param pairs        Pairs to test.
+     */
+    public void test(final ShapeBuffer firstShapes, final ShapeBuffer secondShapes, final PairBuffer pairs) {
+	if (overlaps.length < pairs.size()) {
+	    overlaps = new boolean[Math.max(pairs.size(), overlaps.length * 2)];
+	}
+
+	TestTask task = new TestTask(firstShapes, secondShapes, pairs, overlaps, 0, pairs.size());
+	if (pairs.size() <= PAIRS_PER_TASK) {
+	    // Not worth handing over to the pool
+	    task.compute();
+	} else {
+	    pool.invoke(task);
+	}
+    }
+
+    /**
+     * Returns the result of the last call to test for a pair.
+     *
+     * @param pairIndex Index of the pair in the tested PairBuffer.
+     */
+    public boolean overlaps(final int pairIndex) {
+	return overlaps[pairIndex];
+    }
+
+    /**
+     * Tests a range of pairs, and splits the range in two if it is too large.
+     */
+    private static class TestTask extends RecursiveAction
+    {
+	private static final long serialVersionUID = 1L;
+
+	private final ShapeBuffer firstShapes;
+	private final ShapeBuffer secondShapes;
+	private final PairBuffer pairs;
+	private final boolean[] overlaps;
+	private final int start;
+	private final int end;
+
+	private TestTask(final ShapeBuffer firstShapes, final ShapeBuffer secondShapes, final PairBuffer pairs, final boolean[] overlaps,
+			 final int start, final int end)
+	{
+	    this.firstShapes = firstShapes;
+	    this.secondShapes = secondShapes;
+	    this.pairs = pairs;
+	    this.overlaps = overlaps;
+	    this.start = start;
+	    this.end = end;
+	}
+
+	@Override protected void compute() {
+	    if (end - start > PAIRS_PER_TASK) {
+		int middle = (start + end) >>> 1;
+		invokeAll(new TestTask(firstShapes, secondShapes, pairs, overlaps, start, middle),
+			  new TestTask(firstShapes, secondShapes, pairs, overlaps, middle, end));
+		return;
+	    }
+
+	    for (int i = start; i < end; i++) {
+		CollisionShape first = firstShapes.get(pairs.getFirst(i));
+		overlaps[i] = first.intersects(secondShapes.get(pairs.getSecond(i)));
+	    }
+	}
+    }
+}
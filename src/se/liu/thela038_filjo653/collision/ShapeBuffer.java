@@ -0,0 +1,52 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * Class for storing the collision shapes of a list of entities, together with the version each shape had when it was stored. The version
+ * makes it possible to see if a shape has been updated since, in which case results computed from the stored shape are outdated. The
+ * buffer is reused between ticks in the same way as PairBuffer.
+ */
+public class ShapeBuffer
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private CollisionShape[] shapes = new CollisionShape[INITIAL_CAPACITY];
+    private int[] versions = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a shape to the buffer. The shape is not copied, so it must not be changed while other threads are reading it.
+     *
+     * @param shape   Shape to add.
+     * @param version Version of the shape.
+     */
+    public void add(final CollisionShape shape, final int version) {
+	if (size == shapes.length) {
+	    shapes = Arrays.copyOf(shapes, size * 2);
+	    versions = Arrays.copyOf(versions, size * 2);
+	}
+	shapes[size] = shape;
+	versions[size] = version;
+	size++;
+    }
+
+    /**
+     * Removes all shapes from the buffer. The old references are cleared so that removed entities can be garbage collected.
+     */
+    public void clear() {
+	Arrays.fill(shapes, 0, size, null);
+	size = 0;
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public CollisionShape get(final int index) {
+	return shapes[index];
+    }
+
+    public int getVersion(final int index) {
+	return versions[index];
+    }
+}
@@ -0,0 +1,269 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid that buckets items by the cells that their bounding boxes cover. The grid is cleared and refilled every tick, and is used
+ * to find pairs of items that might overlap without testing every pair against each other. Only the cells that contain items are stored,
+ * in a hash table keyed on the cell coordinates, so the world does not need to have a fixed size.
+ */
+public class SpatialHashGrid implements Broadphase
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NO_ENTRY = -1;
+    private static final int NOT_VISITED = -1;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private final double cellSize;
+
+    // Hash table from a cell key to the first entry in that cell. A slot is only used if its generation matches the current one, which
+    // makes it possible to clear the table without touching every slot.
+    private long[] slotKeys = new long[INITIAL_CAPACITY];
+    private int[] slotHeads = new int[INITIAL_CAPACITY];
+    private int[] slotGenerations = new int[INITIAL_CAPACITY];
+    private int usedSlots = 0;
+    private int generation = 1;
+
+    // One linked list of entries for each cell
+    private int[] entryItems = new int[INITIAL_CAPACITY];
+    private int[] entryNext = new int[INITIAL_CAPACITY];
+    private int entryCount = 0;
+
+    // Bounding boxes of all items, indexed by item
+    private double[] minX = new double[INITIAL_CAPACITY];
+    private double[] minY = new double[INITIAL_CAPACITY];
+    private double[] maxX = new double[INITIAL_CAPACITY];
+    private double[] maxY = new double[INITIAL_CAPACITY];
+    private int[] visitedBy = new int[INITIAL_CAPACITY];
+    private int itemCount = 0;
+
+    // Large items are found in several cells, so every query stamps the items it has found, and a new stamp is used for each query
+    private int[] queriedBy = new int[INITIAL_CAPACITY];
+    private int queryStamp = 0;
+
+    private int[] candidates = new int[INITIAL_CAPACITY];
+    private int candidateCount = 0;
+
+    public SpatialHashGrid(final double cellSize) {
+	this.cellSize = cellSize;
+    }
+
+    @Override public void clear() {
+	generation++;
+	usedSlots = 0;
+	entryCount = 0;
+	itemCount = 0;
+    }
+
+    public int getItemCount() {
+	return itemCount;
+    }
+
+    @Override public int insert(final double itemMinX, final double itemMinY, final double itemMaxX, final double itemMaxY) {
+	ensureItemCapacity(itemCount + 1);
+	int item = itemCount++;
+	minX[item] = itemMinX;
+	minY[item] = itemMinY;
+	maxX[item] = itemMaxX;
+	maxY[item] = itemMaxY;
+
+	int cellMinX = toCell(itemMinX);
+	int cellMinY = toCell(itemMinY);
+	int cellMaxX = toCell(itemMaxX);
+	int cellMaxY = toCell(itemMaxY);
+	for (int cellX = cellMinX; cellX <= cellMaxX; cellX++) {
+	    for (int cellY = cellMinY; cellY <= cellMaxY; cellY++) {
+		addEntry(cellX, cellY, item);
+	    }
+	}
+	return item;
+    }
+
+    @Override public void findPairs(final PairBuffer pairs) {
+	pairs.clear();
+	Arrays.fill(visitedBy, 0, itemCount, NOT_VISITED);
+
+	for (int item = 0; item < itemCount; item++) {
+	    candidateCount = 0;
+
+	    int cellMinX = toCell(minX[item]);
+	    int cellMinY = toCell(minY[item]);
+	    int cellMaxX = toCell(maxX[item]);
+	    int cellMaxY = toCell(maxY[item]);
+	    for (int cellX = cellMinX; cellX <= cellMaxX; cellX++) {
+		for (int cellY = cellMinY; cellY <= cellMaxY; cellY++) {
+		    addCandidatesFromCell(cellX, cellY, item);
+		}
+	    }
+
+	    // Entries within a cell are not ordered, so sort to keep the same order as a loop over every pair
+	    Arrays.sort(candidates, 0, candidateCount);
+	    for (int i = 0; i < candidateCount; i++) {
+		pairs.add(item, candidates[i]);
+	    }
+	}
+    }
+
+    /**
+     * Finds all items whose bounding boxes overlap the given box, touching included. The items are added in no particular order.
+     *
+     * @param result List that the indices of the items are added to. It is not cleared first.
+     */
+    public void query(final double queryMinX, final double queryMinY, final double queryMaxX, final double queryMaxY,
+		      final IntList result)
+    {
+	queryStamp++;
+	int cellMinX = toCell(queryMinX);
+	int cellMinY = toCell(queryMinY);
+	int cellMaxX = toCell(queryMaxX);
+	int cellMaxY = toCell(queryMaxY);
+	for (int cellX = cellMinX; cellX <= cellMaxX; cellX++) {
+	    for (int cellY = cellMinY; cellY <= cellMaxY; cellY++) {
+		int slot = findSlot(cellKey(cellX, cellY));
+		if (slotGenerations[slot] != generation) {
+		    continue;
+		}
+
+		for (int entry = slotHeads[slot]; entry != NO_ENTRY; entry = entryNext[entry]) {
+		    int item = entryItems[entry];
+		    if (queriedBy[item] != queryStamp) {
+			queriedBy[item] = queryStamp;
+			if (minX[item] <= queryMaxX && queryMinX <= maxX[item] && minY[item] <= queryMaxY && queryMinY <= maxY[item]) {
+			    result.add(item);
+			}
+		    }
+		}
+	    }
+	}
+    }
+
+    public double getMinX(final int item) {
+	return minX[item];
+    }
+
+    public double getMinY(final int item) {
+	return minY[item];
+    }
+
+    public double getMaxX(final int item) {
+	return maxX[item];
+    }
+
+    public double getMaxY(final int item) {
+	return maxY[item];
+    }
+
+    /**
+     * Adds all items in a cell that have a higher index than the given item, and that overlaps it, to the candidates.
+     */
+    private void addCandidatesFromCell(final int cellX, final int cellY, final int item) {
+	int slot = findSlot(cellKey(cellX, cellY));
+	if (slotGenerations[slot] != generation) {
+	    return;
+	}
+
+	for (int entry = slotHeads[slot]; entry != NO_ENTRY; entry = entryNext[entry]) {
+	    int other = entryItems[entry];
+	    // Lower indices have already been paired with this item, and large items can be found in several cells
+	    if (other > item && visitedBy[other] != item) {
+		visitedBy[other] = item;
+		if (overlaps(item, other)) {
+		    if (candidateCount == candidates.length) {
+			candidates = Arrays.copyOf(candidates, candidateCount * 2);
+		    }
+		    candidates[candidateCount++] = other;
+		}
+	    }
+	}
+    }
+
+    /**
+     * Checks if the bounding boxes of two items overlap. Touching boxes counts as overlapping, it is up to the exact collision test to
+     * decide those cases.
+     */
+    private boolean overlaps(final int item, final int other) {
+	return minX[item] <= maxX[other] && minX[other] <= maxX[item] && minY[item] <= maxY[other] && minY[other] <= maxY[item];
+    }
+
+    private void addEntry(final int cellX, final int cellY, final int item) {
+	if (usedSlots + 1 > slotKeys.length * MAX_LOAD_FACTOR) {
+	    growSlots();
+	}
+	if (entryCount == entryItems.length) {
+	    entryItems = Arrays.copyOf(entryItems, entryCount * 2);
+	    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+	}
+
+	long key = cellKey(cellX, cellY);
+	int slot = findSlot(key);
+	if (slotGenerations[slot] != generation) {
+	    slotGenerations[slot] = generation;
+	    slotKeys[slot] = key;
+	    slotHeads[slot] = NO_ENTRY;
+	    usedSlots++;
+	}
+
+	int entry = entryCount++;
+	entryItems[entry] = item;
+	entryNext[entry] = slotHeads[slot];
+	slotHeads[slot] = entry;
+    }
+
+    /**
+     * Returns the slot that holds the given key, or the empty slot where it should be placed.
+     */
+    private int findSlot(final long key) {
+	int mask = slotKeys.length - 1;
+	int slot = hash(key) & mask;
+	while (slotGenerations[slot] == generation && slotKeys[slot] != key) {
+	    slot = (slot + 1) & mask;
+	}
+	return slot;
+    }
+
+    private void growSlots() {
+	long[] oldKeys = slotKeys;
+	int[] oldHeads = slotHeads;
+	int[] oldGenerations = slotGenerations;
+
+	slotKeys = new long[oldKeys.length * 2];
+	slotHeads = new int[oldKeys.length * 2];
+	slotGenerations = new int[oldKeys.length * 2];
+
+	for (int i = 0; i < oldKeys.length; i++) {
+	    if (oldGenerations[i] == generation) {
+		int slot = findSlot(oldKeys[i]);
+		slotGenerations[slot] = generation;
+		slotKeys[slot] = oldKeys[i];
+		slotHeads[slot] = oldHeads[i];
+	    }
+	}
+    }
+
+    private void ensureItemCapacity(final int capacity) {
+	if (capacity > minX.length) {
+	    int newLength = Math.max(capacity, minX.length * 2);
+	    minX = Arrays.copyOf(minX, newLength);
+	    minY = Arrays.copyOf(minY, newLength);
+	    maxX = Arrays.copyOf(maxX, newLength);
+	    maxY = Arrays.copyOf(maxY, newLength);
+	    visitedBy = Arrays.copyOf(visitedBy, newLength);
+	    queriedBy = Arrays.copyOf(queriedBy, newLength);
+	}
+    }
+
+    private int toCell(final double coordinate) {
+	return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(final int cellX, final int cellY) {
+	return ((long) cellX << Integer.SIZE) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int hash(final long key) {
+	// Mixes the bits so that neighbouring cells do not end up in neighbouring slots
+	final long multiplier = 0x9E3779B97F4A7C15L;
+	long mixed = key * multiplier;
+	return (int) (mixed ^ (mixed >>> Integer.SIZE));
+    }
+}
@@ -0,0 +1,170 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Arrays;
+
+/**
+ * Sort and sweep broadphase. Items are sorted on the left edge of their bounding boxes, and a sweep along the x-axis keeps a list of
+ * items whose x-intervals are still open. Unlike a grid it does not depend on a cell size, so it handles a mix of tiny bullets and long
+ * walls well.
+ * <p>
+ * The sorted order is kept between ticks. Entities only move a few pixels every tick, so the previous order is almost sorted and an
+ * insertion sort finishes it in close to linear time. If the order has changed a lot, for example because many items were removed, the
+ * insertion sort gives up and a merge sort is used instead.
+ */
+public class SweepAndPrune implements Broadphase
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_SHIFTS_PER_ITEM = 8;
+
+    private double[] minX = new double[INITIAL_CAPACITY];
+    private double[] minY = new double[INITIAL_CAPACITY];
+    private double[] maxX = new double[INITIAL_CAPACITY];
+    private double[] maxY = new double[INITIAL_CAPACITY];
+    private int itemCount = 0;
+
+    // Item indices sorted on minX. Kept from the previous tick.
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int orderCount = 0;
+    private int[] mergeBuffer = new int[INITIAL_CAPACITY];
+
+    private int[] active = new int[INITIAL_CAPACITY];
+    private long[] foundPairs = new long[INITIAL_CAPACITY];
+
+    @Override public void clear() {
+	itemCount = 0;
+    }
+
+    @Override public int insert(final double itemMinX, final double itemMinY, final double itemMaxX, final double itemMaxY) {
+	if (itemCount == minX.length) {
+	    int newLength = itemCount * 2;
+	    minX = Arrays.copyOf(minX, newLength);
+	    minY = Arrays.copyOf(minY, newLength);
+	    maxX = Arrays.copyOf(maxX, newLength);
+	    maxY = Arrays.copyOf(maxY, newLength);
+	}
+	int item = itemCount++;
+	minX[item] = itemMinX;
+	minY[item] = itemMinY;
+	maxX[item] = itemMaxX;
+	maxY[item] = itemMaxY;
+	return item;
+    }
+
+    @Override public void findPairs(final PairBuffer pairs) {
+	pairs.clear();
+	updateOrder();
+
+	int activeCount = 0;
+	int pairCount = 0;
+	for (int i = 0; i < itemCount; i++) {
+	    int item = order[i];
+
+	    // Close the intervals that ended before this one starts, and test the rest on the y-axis
+	    int kept = 0;
+	    for (int a = 0; a < activeCount; a++) {
+		int other = active[a];
+		if (maxX[other] >= minX[item]) {
+		    active[kept++] = other;
+		    if (minY[item] <= maxY[other] && minY[other] <= maxY[item]) {
+			if (pairCount == foundPairs.length) {
+			    foundPairs = Arrays.copyOf(foundPairs, pairCount * 2);
+			}
+			foundPairs[pairCount++] = pairKey(item, other);
+		    }
+		}
+	    }
+	    active[kept] = item;
+	    activeCount = kept + 1;
+	}
+
+	// The sweep finds pairs in x-order, so sort them to get the same order as a loop over every pair
+	Arrays.sort(foundPairs, 0, pairCount);
+	for (int i = 0; i < pairCount; i++) {
+	    pairs.add((int) (foundPairs[i] >>> Integer.SIZE), (int) foundPairs[i]);
+	}
+    }
+
+    /**
+     * Updates the order from the previous tick to contain the current items, and sorts it.
+     */
+    private void updateOrder() {
+	if (order.length < itemCount) {
+	    int newLength = Math.max(itemCount, order.length * 2);
+	    order = Arrays.copyOf(order, newLength);
+	    mergeBuffer = new int[newLength];
+	    active = new int[newLength];
+	}
+
+	// Remove items that no longer exist, and add new items at the end
+	int kept = 0;
+	for (int i = 0; i < orderCount; i++) {
+	    if (order[i] < itemCount) {
+		order[kept++] = order[i];
+	    }
+	}
+	for (int item = kept; item < itemCount; item++) {
+	    order[item] = item;
+	}
+	orderCount = itemCount;
+
+	if (!insertionSort()) {
+	    mergeSort(0, orderCount);
+	}
+    }
+
+    /**
+     * Sorts the order with insertion sort, which is fast when the order is almost sorted.
+     *
+     * @return false if the sort was aborted because the order was too far from sorted.
+     */
+    private boolean insertionSort() {
+	long shiftsLeft = (long) orderCount * MAX_SHIFTS_PER_ITEM;
+	for (int i = 1; i < orderCount; i++) {
+	    int item = order[i];
+	    double key = minX[item];
+	    int j = i - 1;
+	    while (j >= 0 && minX[order[j]] > key) {
+		order[j + 1] = order[j];
+		j--;
+		if (--shiftsLeft < 0) {
+		    order[j + 1] = item;
+		    return false;
+		}
+	    }
+	    order[j + 1] = item;
+	}
+	return true;
+    }
+
+    /**
+     * Sorts a range of the order on minX.
+     *
+     * @param from First index, inclusive.
+     * @param to   Last index, exclusive.
+     */
+    private void mergeSort(final int from, final int to) {
+	if (to - from < 2) {
+	    return;
+	}
+	int middle = (from + to) >>> 1;
+	mergeSort(from, middle);
+	mergeSort(middle, to);
+
+	System.arraycopy(order, from, mergeBuffer, from, to - from);
+	int left = from;
+	int right = middle;
+	for (int i = from; i < to; i++) {
+	    if (right >= to || (left < middle && minX[mergeBuffer[left]] <= minX[mergeBuffer[right]])) {
+		order[i] = mergeBuffer[left++];
+	    } else {
+		order[i] = mergeBuffer[right++];
+	    }
+	}
+    }
+
+    private static long pairKey(final int item, final int other) {
+	int first = Math.min(item, other);
+	int second = Math.max(item, other);
+	return ((long) first << Integer.SIZE) | second;
+    }
+}
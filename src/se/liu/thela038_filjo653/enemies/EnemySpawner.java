@@ -8,6 +8,7 @@ import se.liu.thela038_filjo653.SpriteLayer;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.sprites.CollisionType;
 import se.liu.thela038_filjo653.sprites.Enemy;
 import se.liu.thela038_filjo653.sprites.Entity;
 import se.liu.thela038_filjo653.sprites.SpriteTexture;
@@ -74,7 +75,7 @@ public class EnemySpawner
 	int wave = currentWaveNumber;
 	final double timerNewWave = 35;
 
-	if (timer > timerNewWave || !entityHandler.isEntityTypeExisting(Enemy.class)) {
+	if (timer > timerNewWave || !entityHandler.isTypeExisting(CollisionType.ENEMY)) {
 	    timer = 0;
 	    wave = currentWaveNumber + 1;
 	    createWave(wave);
@@ -18,14 +18,14 @@ public class JsonReader
 {
     public enum VALUES
     {
-	WALKER, COP, BOSS, PISTOL, UZI, RIFLE, RPG, MELEE, MELEE_BOSS
+	WALKER, COP, BOSS, PISTOL, UZI, RIFLE, RPG, MELEE, MELEE_BOSS, COLLISION
     }
 
     private static final Logger LOGGER = Logger.getLogger("");
 
     private static final Map<VALUES, String> VALUES_MAP =
 	    Map.of(VALUES.PISTOL, "pistol", VALUES.UZI, "uzi", VALUES.RIFLE, "ak", VALUES.RPG, "rpg", VALUES.WALKER, "walker", VALUES.COP,
-		   "cop", VALUES.BOSS, "boss", VALUES.MELEE, "melee", VALUES.MELEE_BOSS, "meleeBoss");
+		   "cop", VALUES.BOSS, "boss", VALUES.MELEE, "melee", VALUES.MELEE_BOSS, "meleeBoss", VALUES.COLLISION, "collision");
 
     public static Map<?, ?> readJson(VALUES value) throws IOException, FileNotFoundException {
 	String fileName = VALUES_MAP.get(value);
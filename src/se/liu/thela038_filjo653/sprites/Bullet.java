@@ -2,6 +2,7 @@ package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.Rotation;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.SpriteLayer;
@@ -38,18 +39,54 @@ public class Bullet extends Entity
 									//actual rotation value (which is a double between 0 - 2*PI)
     }
 
+    /**
+     * Makes a removed bullet from a pool ready to be shot again, with the same result as the constructor. The position is copied.
+     */
+    public void reset(final ReadOnlyVector2D position, final double rotation, final int speed, final int damage, final LivingEntity owner) {
+	resetEntity(position, rotation);
+	this.damage = damage;
+	this.lastPosition.setTo(position);
+	this.owner = owner;
+	bulletFlightTimer = 1;
+	bulletTrailTimer = 0.1;
+	velocity.set(Math.cos(rotation) * speed, Math.sin(rotation) * speed);
+    }
+
+    /**
+     * Bullets are shot and removed many times per second, so they are reused.
+     */
+    @Override public boolean isPoolable() {
+	return true;
+    }
+
+    /**
+     * The owner is set again when the bullet is reset, so the pool does not need to keep it.
+     */
+    @Override public void onRetired() {
+	owner = null;
+    }
+
 
     @Override public void update(final DeltaTime deltaTime) {
+	// Collisions are tested along the movement from the last position, so it must be stored before moving
+	lastPosition.setTo(position);
 	super.update(deltaTime);
 	bulletFlightTimer -= deltaTime.getSeconds();
 	if (bulletFlightTimer < 0){
 	    removeThis();
 	}
 	if (bulletTrailTimer > 0){
-	spriteHandler.add(new SpriteTexture(getPosition(), lastPosition, getRotation(), Color.WHITE, SpriteType.LINE),
+	spriteHandler.add(new SpriteTexture(position.copy(), lastPosition.copy(), getRotation(), Color.WHITE, SpriteType.LINE),
 			  bulletTrailTimer, SpriteLayer.LAST);
 	}
-	lastPosition = position.copy();
+    }
+
+    @Override public double getSweepX() {
+	return position.getX() - lastPosition.getX();
+    }
+
+    @Override public double getSweepY() {
+	return position.getY() - lastPosition.getY();
     }
 
     @Override public void baseCollide(final Entity entity) {
@@ -73,6 +110,13 @@ public class Bullet extends Entity
 	return damage;
     }
 
+    /**
+     * Whether the bullet stays in place for a while where it hits, like an explosion, so that entities can be inside it.
+     */
+    public boolean isLingering() {
+	return false;
+    }
+
     protected void setBulletTrailTimer(final double bulletTrailTimer) {
 	this.bulletTrailTimer = bulletTrailTimer;
     }
@@ -0,0 +1,77 @@
+package se.liu.thela038_filjo653.sprites;
+
+import se.liu.thela038_filjo653.collision.CollisionMatrix;
+import se.liu.thela038_filjo653.sprites.collectables.Collectable;
+
+
+/**
+ * Table of what an entity does when it collides with another entity, with one handler for every pair of collision types. The table is
+ * built once, so a collision is a lookup instead of a switch on the collision type of the other entity.
+ * <p>
+ * Collisions happen in pairs where both entities need to know the type of the other. For example, a bullet needs to know if it hit a
+ * LivingEntity, where it destroys itself, or a wall, where it ignores the collision. The handler for a pair picks the collide method for
+ * the type of the other entity, e.g collidePlayer for a player, and casts the other entity to its class. The collide method itself is
+ * still called on the entity, so subclasses that override it get their own behaviour, and the calls follow the class hierarchy down to
+ * baseCollide unless an override stops them. Pairs where the collision type does not react to the other type, according to the
+ * CollisionMatrix, only end up in the empty baseCollide and get a handler that does nothing.
+ */
+public class CollisionDispatcher
+{
+    private static final CollisionHandler NO_RESPONSE = (entity, other) -> {};
+
+    private final CollisionHandler[][] handlers;
+
+    /**
+     * What an entity does when it collides with another entity.
+     */
+    @FunctionalInterface
+    public interface CollisionHandler
+    {
+	void handle(Entity entity, Entity other);
+    }
+
+    /**
+     * Builds the table for all pairs of collision types.
+     *
+     * @param matrix The pairs that the collision types react to. Pairs that do not react get a handler that does nothing.
+     */
+    public CollisionDispatcher(final CollisionMatrix matrix) {
+	CollisionType[] types = CollisionType.values();
+	handlers = new CollisionHandler[types.length][types.length];
+	for (CollisionType type : types) {
+	    for (CollisionType other : types) {
+		handlers[type.ordinal()][other.ordinal()] = matrix.reactsTo(type, other) ? createHandler(other) : NO_RESPONSE;
+	    }
+	}
+    }
+
+    /**
+     * Creates the handler that calls the collide method for the collision type of the other entity.
+     */
+    private static CollisionHandler createHandler(final CollisionType other) {
+	return switch (other) {
+	    case LIVING_ENTITY -> (entity, o) -> entity.collideLivingEntity((LivingEntity) o);
+	    case WALL -> (entity, o) -> entity.collideWall((Wall) o);
+	    case BULLET -> (entity, o) -> entity.collideBullet((Bullet) o);
+	    case PLAYER -> (entity, o) -> entity.collidePlayer((Player) o);
+	    case ENEMY -> (entity, o) -> entity.collideEnemy((Enemy) o);
+	    case COLLECTABLE -> (entity, o) -> entity.collideCollectable((Collectable) o);
+	    case ENTITY -> Entity::baseCollide;
+	};
+    }
+
+    /**
+     * Lets an entity react to colliding with another entity. The other entity does not react.
+     */
+    public void respond(final Entity entity, final Entity other) {
+	handlers[entity.getCollisionType().ordinal()][other.getCollisionType().ordinal()].handle(entity, other);
+    }
+
+    /**
+     * Lets both entities react to colliding with each other, the first entity first.
+     */
+    public void dispatch(final Entity entity1, final Entity entity2) {
+	respond(entity1, entity2);
+	respond(entity2, entity1);
+    }
+}
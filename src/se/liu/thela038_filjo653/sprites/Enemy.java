@@ -2,6 +2,9 @@ package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.EntityPools;
+import se.liu.thela038_filjo653.Octant;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -24,9 +27,12 @@ public class Enemy extends LivingEntity
     protected int scoreWorth;
     protected double attackRange;
     protected DeltaTimer staggerTimer = new DeltaTimer();
+    // Number of lingering bullets, like explosions, that the enemy is inside. It is staggered until it gets out of all of them.
+    private int lingeringContacts = 0;
     protected static final double ZOMBIE_ANIMATION_TICK = 0.7;
 
     private final static double DROP_PROBABILITY = 0.8;
+    private final Vector2D targetDirection = new Vector2D();
 
 
     public Enemy(final Vector2D position, final BufferedImage startTexture, final int health, final int speed, Entity target, WeaponType weaponType, double attackRange,
@@ -70,7 +76,37 @@ public class Enemy extends LivingEntity
 
     @Override public void collideBullet(final Bullet entity) {
 	super.collideBullet(entity);
-	staggerTimer.setTimer(1);
+	if (!entity.isLingering()) {
+	    staggerTimer.setTimer(1);
+	}
+    }
+
+    @Override public void onCollisionEnter(final Entity entity) {
+	if (isLingeringBullet(entity)) {
+	    lingeringContacts++;
+	}
+    }
+
+    /**
+     * The stagger of a lingering bullet lasts as long as the stagger of a hit, but starts when the enemy gets out of it.
+     */
+    @Override public void onCollisionExit(final Entity entity) {
+	if (isLingeringBullet(entity)) {
+	    lingeringContacts--;
+	    staggerTimer.setTimer(1);
+	}
+    }
+
+    private static boolean isLingeringBullet(final Entity entity) {
+	return entity.getCollisionType() == CollisionType.BULLET && ((Bullet) entity).isLingering();
+    }
+
+    /**
+     * Whether the enemy has been hit by a bullet in the last second, or is inside a lingering bullet. A staggered enemy moves slower and
+     * does not attack.
+     */
+    public boolean isStaggered() {
+	return lingeringContacts > 0 || !staggerTimer.isComplete();
     }
 
     @Override protected void onDeath(LivingEntity killer) {
@@ -89,12 +125,13 @@ public class Enemy extends LivingEntity
     }
 
     /**
-     * Returns a new vector pointing at the target.
+     * Returns a vector pointing at the target. The same vector is reused by every call, so it is only valid until the next call.
      *
-     * @return A new Vector.
+     * @return The reused vector.
      */
     protected Vector2D getTargetDirection() {
-	return Vector2D.pointAt(getCollisionCenter(), target.getCollisionCenter());
+	targetDirection.set(target.getCollisionCenterX() - getCollisionCenterX(), target.getCollisionCenterY() - getCollisionCenterY());
+	return targetDirection;
     }
 
     /**
@@ -104,12 +141,21 @@ public class Enemy extends LivingEntity
      */
     @Override public double getAttackRotation() {
 	// The position of the "tip" of the weapon.
-	Vector2D weaponOrigin = Vector2D.getSum(getPosition(), weapon.getCorrectAttackOffset());
+	ReadOnlyVector2D offset = weapon.getCorrectAttackOffset();
+	double originX = position.getX() + offset.getX();
+	double originY = position.getY() + offset.getY();
 
-	// Vector pointing from the weapon to the target
-	Vector2D direction = Vector2D.pointAt(weaponOrigin, target.getCollisionCenter());
+	// Angle of the vector pointing from the weapon to the target, between 0 and 2 PI like a Rotation
+	double angle = Math.atan2(target.getCollisionCenterY() - originY, target.getCollisionCenterX() - originX);
+	return angle < 0 ? angle + 2 * Math.PI : angle;
+    }
 
-	return direction.getAngle().getRadians();
+    /**
+     * The enemy always looks at the target, so the direction of the character model is found directly from the vector to the target.
+     */
+    @Override protected void updateCharRotation() {
+	Vector2D targetDir = getTargetDirection();
+	direction = Octant.fromVector(targetDir.getX(), targetDir.getY());
     }
 
     /**
@@ -129,22 +175,22 @@ public class Enemy extends LivingEntity
 	Vector2D targetDir = getTargetDirection();
 
 	// Look at the target
-	rotation = targetDir.getAngle();
+	rotation.setRadians(targetDir.getAngleRadians());
 
 	// Updates the velocity to move towards the target
 	velocity.setTo(targetDir);
 	double currentSpeed;
-	if (staggerTimer.isComplete()) {
+	if (!isStaggered()) {
 	    currentSpeed = speed;
 	}
 	else {
 	    final double knockBackMultiplier = 0.2;
 	    currentSpeed = speed * knockBackMultiplier;
 	}
-	velocity.setLength(currentSpeed);
+	velocity.normalizeToLength(currentSpeed);
 
-	// Attack
-	if (getTargetDistance() <= attackRange && staggerTimer.isComplete()) {
+	// Attack, comparing squared lengths so that no square root is needed
+	if (targetDir.getLengthSquared() <= attackRange * attackRange && !isStaggered()) {
 	    attack();
 	}
 
@@ -161,18 +207,35 @@ public class Enemy extends LivingEntity
      */
     private Entity getDrop() {
         final int amountOfDrops = 3;
+	// Drops are taken from the pools when possible. A new drop keeps the position, so it gets its own copy.
+	EntityPools pools = entityHandler.getPools();
 	switch (RND.nextInt(amountOfDrops)) {
 	    case 0 -> {
 		final int cashAmount = 15;
-		return new CCash(position, entityHandler, spriteHandler, cashAmount, imageLoader, audioLoader);
+		CCash cashDrop = pools.acquire(CCash.class);
+		if (cashDrop == null) {
+		    return new CCash(position.copy(), entityHandler, spriteHandler, cashAmount, imageLoader, audioLoader);
+		}
+		cashDrop.reset(position, cashAmount);
+		return cashDrop;
 	    }
 	    case 1 -> {
 		final int healthAmount = 10;
-		return new CHealth(position, entityHandler, spriteHandler, healthAmount, imageLoader, audioLoader);
+		CHealth healthDrop = pools.acquire(CHealth.class);
+		if (healthDrop == null) {
+		    return new CHealth(position.copy(), entityHandler, spriteHandler, healthAmount, imageLoader, audioLoader);
+		}
+		healthDrop.reset(position, healthAmount);
+		return healthDrop;
 	    }
 	    default -> {
 		final int ammoAmount = 3;
-		return new CAmmo(position, entityHandler, spriteHandler, ammoAmount, imageLoader, audioLoader);
+		CAmmo ammoDrop = pools.acquire(CAmmo.class);
+		if (ammoDrop == null) {
+		    return new CAmmo(position.copy(), entityHandler, spriteHandler, ammoAmount, imageLoader, audioLoader);
+		}
+		ammoDrop.reset(position, ammoAmount);
+		return ammoDrop;
 	    }
 	}
     }
@@ -3,16 +3,17 @@ package se.liu.thela038_filjo653.sprites;
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
+import se.liu.thela038_filjo653.HandleTable;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.Rotation;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.CollisionShape;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
 import se.liu.thela038_filjo653.sprites.collectables.Collectable;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 
 /**
@@ -31,6 +32,13 @@ public abstract class Entity implements Sprite
     protected EntityHandler entityHandler;
     protected SpriteHandler spriteHandler;
     protected static final CollisionType COLLISION_TYPE = CollisionType.ENTITY;
+    private final CollisionShape collisionShape = new CollisionShape();
+    private boolean collisionShapeValid = false;
+    private int collisionShapeVersion = 0;
+    private double shapePositionX, shapePositionY, shapeSizeX, shapeSizeY;
+    private static long shapeCacheHits = 0;
+    private static long shapeCacheMisses = 0;
+    private int handle = HandleTable.NO_HANDLE;
 
     protected Entity(final Vector2D position, final Vector2D size, final double rotation, final BufferedImage texture,
 		     final ImageLoader imageLoader, final EntityHandler entityHandler, final SpriteHandler spriteHandler,
@@ -49,27 +57,6 @@ public abstract class Entity implements Sprite
 	velocity = new Vector2D();
     }
 
-    /**
-     * Follows the class hierarchy down to default entity collide unless interrupted
-     * e.g collidePlayer -> collideLivingEntity -> baseCollide.
-     *
-     * Doing this in a more object oriented way is hard since collisions happen in pairs where
-     * both entities need to know which type the other is. For example, a bullet needs to know
-     * if the entity it hit is a LivingEntity where it will destory itself or if it hit a wall
-     * where it ignores the collision.
-     */
-    public void onCollide(Entity entity){
-        switch (entity.getCollisionType()){
-	    case LIVING_ENTITY -> collideLivingEntity((LivingEntity) entity);
-	    case WALL -> collideWall((Wall) entity);
-	    case BULLET -> collideBullet((Bullet) entity);
-	    case PLAYER -> collidePlayer((Player) entity);
-	    case ENEMY -> collideEnemy((Enemy) entity);
-	    case COLLECTABLE -> collideCollectable((Collectable)entity);
-	    case ENTITY -> baseCollide(entity);
-	}
-    }
-
     /**
      * Follows the class hierarchy down to default entity collide unless interrupted
      * e.g collidePlayer -> collideLivingEntity -> baseCollide
@@ -113,12 +100,96 @@ public abstract class Entity implements Sprite
      */
     public void baseCollide(Entity entity){}
 
+    /**
+     * Whether the collide methods are called again on every tick that the entity stays in contact with another entity. If not, they are
+     * only called on the first tick of each contact, which is enough for entities that only do something when they first hit.
+     */
+    public boolean isRespondingToStay() {
+	return true;
+    }
+
+    /**
+     * Called on the first tick that the entity is in contact with another entity, before the collide methods. Contacts are only found
+     * between entities where at least one of them reacts to the other, but this is called for both. Base implementation is to do nothing.
+     */
+    public void onCollisionEnter(Entity entity) {}
+
+    /**
+     * Called on every tick after the first that the entity stays in contact with another entity, before the collide methods. Called
+     * whether or not the entity is responding to staying contacts. Base implementation is to do nothing.
+     */
+    public void onCollisionStay(Entity entity) {}
+
+    /**
+     * Called on the first tick that the entity is no longer in contact with an entity that it collided with. If the other entity is
+     * removed, this is called in the tick that it is removed instead. Not called for an entity that is being removed. Base implementation
+     * is to do nothing.
+     */
+    public void onCollisionExit(Entity entity) {}
+
     /**
      * Updates the entity.
      */
     public void update(DeltaTime deltaTime) {
 	// Update position from velocity
-	position.add(Vector2D.getProduct(velocity, deltaTime.getSeconds()));
+	position.addScaled(velocity, deltaTime.getSeconds());
+    }
+
+    /**
+     * Checks if the entity can be put in an EntityPools when it has been removed, and be reused for a new entity of the same class. A
+     * poolable class must have a reset method that sets all of the state that can change while the entity is alive. Base implementation is
+     * false, since subclasses would otherwise be pooled without resetting their own state.
+     */
+    public boolean isPoolable() {
+	return false;
+    }
+
+    /**
+     * Called when the entity has been removed and is waiting to be put in its pool. The entity can stay in the pool for a long time, so it
+     * should drop its references to other entities here, to not keep them from being garbage collected. Base implementation is to do
+     * nothing.
+     */
+    public void onRetired() {}
+
+    /**
+     * Moves the entity to a new position and clears its velocity, for entities that are reused from a pool.
+     */
+    protected void resetEntity(final ReadOnlyVector2D position, final double rotation) {
+	this.position.setTo(position);
+	this.rotation.setRadians(rotation);
+	velocity.set(0, 0);
+	invalidateCollisionShape();
+    }
+
+    /**
+     * Checks if the entity is static, i.e never moves and does not need to be updated. Static entities are only tested for collisions
+     * against entities that are not static.
+     */
+    public boolean isStatic() {
+	return false;
+    }
+
+    /**
+     * Returns how far the entity moved along the x axis during the last update, if collisions should be tested along the whole movement
+     * and not only where the entity ended up. Fast entities like bullets can otherwise pass through other entities between two updates.
+     * Base implementation is 0, i.e only the position after the update is tested.
+     */
+    public double getSweepX() {
+	return 0;
+    }
+
+    /**
+     * Returns how far the entity moved along the y axis during the last update, see getSweepX.
+     */
+    public double getSweepY() {
+	return 0;
+    }
+
+    /**
+     * Checks if collisions should be tested along the movement of the entity during the last update.
+     */
+    public boolean isSwept() {
+	return getSweepX() != 0 || getSweepY() != 0;
     }
 
     /**
@@ -128,12 +199,12 @@ public abstract class Entity implements Sprite
 	return velocity.getLength() > 0;
     }
 
-    @Override public Vector2D getPosition() {
-	return position.copy();
+    @Override public ReadOnlyVector2D getPosition() {
+	return position;
     }
 
-    @Override public Vector2D getSize() {
-	return size.copy();
+    @Override public ReadOnlyVector2D getSize() {
+	return size;
     }
 
     @Override public double getRotation() {
@@ -145,18 +216,90 @@ public abstract class Entity implements Sprite
     }
 
     /**
-     * Returns the entity's collision area
+     * Returns the entity's handle in the entity handler, or HandleTable.NO_HANDLE if it is not in an entity handler. The handle can be
+     * kept instead of the entity, see EntityHandler.getEntity.
+     */
+    public int getHandle() {
+	return handle;
+    }
+
+    /**
+     * Sets the entity's handle. Should only be called by the entity handler.
+     */
+    public void setHandle(final int handle) {
+	this.handle = handle;
+    }
+
+    /**
+     * Returns the entity's collision shape. The shape is cached, and only updated when the position or size of the entity has changed
+     * since the last call. The same shape object is always returned, so it should not be kept by the caller.
      */
-    public Area getCollisionArea(){
-	return new Area(new Rectangle((int)getPosition().getX(), (int)getPosition().getY(), (int)getSize().getX(), (int)getSize().getY()));
+    public CollisionShape getCollisionShape(){
+	if (collisionShapeValid && shapePositionX == position.getX() && shapePositionY == position.getY() &&
+	    shapeSizeX == size.getX() && shapeSizeY == size.getY()) {
+	    shapeCacheHits++;
+	    return collisionShape;
+	}
+
+	shapeCacheMisses++;
+	shapePositionX = position.getX();
+	shapePositionY = position.getY();
+	shapeSizeX = size.getX();
+	shapeSizeY = size.getY();
+	updateCollisionShape(collisionShape);
+	collisionShapeValid = true;
+	collisionShapeVersion++;
+	return collisionShape;
     }
 
     /**
-     * Returns the center of the entity's collision area.
+     * Returns a number that changes every time the collision shape is updated. Only valid right after a call to getCollisionShape.
+     */
+    public int getCollisionShapeVersion(){
+	return collisionShapeVersion;
+    }
+
+    /**
+     * Forces the collision shape to be updated on the next call to getCollisionShape. Only needed if the shape depends on something else
+     * than the position and size.
+     */
+    protected void invalidateCollisionShape(){
+	collisionShapeValid = false;
+    }
+
+    /**
+     * Returns the share of calls to getCollisionShape, for all entities, that did not need to update the shape.
+     *
+     * @return Hit rate between 0 and 1.
+     */
+    public static double getShapeCacheHitRate(){
+	long total = shapeCacheHits + shapeCacheMisses;
+	return total == 0 ? 0 : (double) shapeCacheHits / total;
+    }
+
+    /**
+     * Sets the given shape to the entity's collision shape. Base implementation is a rectangle covering the entity. The shape must only
+     * depend on the position and size, otherwise invalidateCollisionShape needs to be called when it changes.
+     */
+    protected void updateCollisionShape(CollisionShape shape){
+	shape.setRectangle((int) position.getX(), (int) position.getY(), (int) size.getX(), (int) size.getY());
+    }
+
+    /**
+     * Returns the center of the entity's collision shape.
+     *
+     * @return A new Vector.
      */
     public Vector2D getCollisionCenter() {
-	Rectangle2D bounds = getCollisionArea().getBounds2D();
-	return new Vector2D(bounds.getCenterX(), bounds.getCenterY());
+	return new Vector2D(getCollisionCenterX(), getCollisionCenterY());
+    }
+
+    public double getCollisionCenterX() {
+	return getCollisionShape().getCenterX();
+    }
+
+    public double getCollisionCenterY() {
+	return getCollisionShape().getCenterY();
     }
 
 
@@ -2,16 +2,15 @@ package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.CollisionShape;
+import se.liu.thela038_filjo653.collision.IntSet;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
 
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Class representing an explosion that damages nearby LivingEntities. Created by the explosiveBullet.
@@ -20,7 +19,8 @@ public class Explosion extends Bullet
 {
     private double timerStop = 1;
     private double timer = 0;
-    private List<LivingEntity> hitEntities = new ArrayList<>();
+    // Handles of the entities that have been hit, so that hit entities are not kept after they are removed
+    private final IntSet hitEntities = new IntSet();
 
     public Explosion(final Vector2D position, final double rotation, final SpriteHandler spriteHandler, final EntityHandler entityHandler,
 		     final int speed, final int damage, final LivingEntity owner, final ImageLoader imageLoader, final AudioLoader audioLoader)
@@ -32,6 +32,21 @@ public class Explosion extends Bullet
 	setBulletTrailTimer(0);
     }
 
+    /**
+     * Makes a removed explosion from a pool ready to explode again. The explosion is centred on the position, like in the constructor.
+     */
+    @Override public void reset(final ReadOnlyVector2D position, final double rotation, final int speed, final int damage,
+				final LivingEntity owner)
+    {
+	super.reset(position, rotation, speed, damage, owner);
+	this.position.addX(-size.getX() / 2);
+	this.position.addY(-size.getY() / 2);
+	lastPosition.setTo(this.position);
+	setBulletTrailTimer(0);
+	timer = 0;
+	hitEntities.clear();
+    }
+
     @Override public void update(final DeltaTime deltaTime) {
 	super.update(deltaTime);
 	timer += deltaTime.getSeconds();
@@ -41,14 +56,24 @@ public class Explosion extends Bullet
     }
 
     @Override public void collideLivingEntity(final LivingEntity entity) {
-        if (!hitEntities.contains(entity)){
-	    hitEntities.add(entity);
+        if (hitEntities.add(entity.getHandle())){
 	    super.collideLivingEntity(entity);
 	}
     }
 
-    @Override public Area getCollisionArea(){
-	return new Area(new Ellipse2D.Double(getPosition().getX(), getPosition().getY(), getSize().getX(), getSize().getY()));
+    @Override protected void updateCollisionShape(final CollisionShape shape){
+	shape.setEllipse(position.getX(), position.getY(), size.getX(), size.getY());
+    }
+
+    @Override public boolean isLingering() {
+	return true;
+    }
+
+    /**
+     * Every entity is only hit once, so contacts that stay do not need to be handled again.
+     */
+    @Override public boolean isRespondingToStay() {
+	return false;
     }
 
     @Override public void baseCollide(final Entity entity) {}
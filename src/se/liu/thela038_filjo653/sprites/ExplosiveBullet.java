@@ -21,8 +21,13 @@ public class ExplosiveBullet extends Bullet
 
     @Override protected void removeThis() {
         int explosionSpeed = 0;
-        Entity explosion = new Explosion(getPosition(),  getRotation(), spriteHandler,
-					 entityHandler, explosionSpeed, damage, owner, imageLoader, audioLoader);
+        Explosion explosion = entityHandler.getPools().acquire(Explosion.class);
+        if (explosion == null) {
+	    explosion = new Explosion(position, getRotation(), spriteHandler, entityHandler, explosionSpeed, damage, owner, imageLoader,
+				      audioLoader);
+	} else {
+	    explosion.reset(position, getRotation(), explosionSpeed, damage, owner);
+	}
         audioLoader.playSound(AudioLoader.AudioEffect.EXPLOSION);
         entityHandler.add(explosion);
 	super.removeThis();
@@ -3,17 +3,16 @@ package se.liu.thela038_filjo653.sprites;
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
-import se.liu.thela038_filjo653.Rotation;
+import se.liu.thela038_filjo653.Octant;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.SpriteLayer;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.CollisionShape;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
 import se.liu.thela038_filjo653.weapons.Weapon;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.Random;
@@ -38,8 +37,7 @@ public abstract class LivingEntity extends Entity
     protected final static CollisionType COLLISION_TYPE = CollisionType.LIVING_ENTITY;
     protected final static Random RND = new Random();
 
-    private Vector2D previousPosition;
-    private final static int CHAR_DIRS = 8;
+    private final Vector2D wallSeparation = new Vector2D();
 
     protected LivingEntity(final Vector2D position, final Vector2D size, final double rotation, final BufferedImage texture,
 			   final EntityHandler entityHandler, final SpriteHandler spriteHandler, final int maxHealth,
@@ -53,8 +51,6 @@ public abstract class LivingEntity extends Entity
 	setCollisionType(COLLISION_TYPE);
 	final double defaultAnimationTick = 0.25;
 	setAnimationTick(defaultAnimationTick);
-
-	previousPosition = position.copy();
     }
 
     /**
@@ -81,9 +77,6 @@ public abstract class LivingEntity extends Entity
     }
 
     @Override public void update(DeltaTime deltaTime) {
-        // Save the position before this entity is moved
-        previousPosition = position.copy();
-
 	super.update(deltaTime);
 
 	timer += deltaTime.getSeconds();
@@ -94,33 +87,17 @@ public abstract class LivingEntity extends Entity
 	updateTexture();
     }
 
-    @Override public Area getCollisionArea(){
-	return new Area(new Ellipse2D.Double(getPosition().getX(), getPosition().getY(), getSize().getX(), getSize().getY()));
+    @Override protected void updateCollisionShape(final CollisionShape shape){
+	shape.setEllipse(position.getX(), position.getY(), size.getX(), size.getY());
     }
 
+    /**
+     * Pushes the entity out of the wall the shortest way. Only the movement into the wall is undone, so an entity that walks into a wall
+     * at an angle slides along it instead of stopping.
+     */
     @Override public void collideWall(final Wall wall){
-	Vector2D originalPos = position.copy();
-	// Move back to previous position
-        position.setTo(previousPosition);
-
-        // Test move Y
-	position.setY(originalPos.getY());
-
-	// If collides, move back
-	Area collisionArea = getCollisionArea();
-	collisionArea.intersect(wall.getCollisionArea());
-	if (!collisionArea.isEmpty()) {
-	    position.setY(previousPosition.getY());
-	}
-
-	// Test move X
-	position.setX(originalPos.getX());
-
-	// If collides, move back
-	collisionArea = getCollisionArea();
-	collisionArea.intersect(wall.getCollisionArea());
-	if (!collisionArea.isEmpty()) {
-	    position.setX(previousPosition.getX());
+	if (getCollisionShape().findSeparation(wall.getCollisionShape(), wallSeparation)) {
+	    position.add(wallSeparation);
 	}
     }
 
@@ -162,29 +139,33 @@ public abstract class LivingEntity extends Entity
      */
     protected void updateHealthbars(){
 	final int barHeight = 4;
-	Vector2D healthbarSize = new Vector2D(size.getX(), barHeight);
-	Vector2D healthBarRemainingSize = new Vector2D(healthbarSize.getX() * health/maxHealth, barHeight);
+	double healthbarWidth = size.getX();
 
 	//First add a red bar, then the green bar of remaining health on top
-	healthbarMissing = updateIndividualBar(healthbarMissing, healthbarSize, Color.RED);
-	healthbarMax = updateIndividualBar(healthbarMax, healthBarRemainingSize, Color.green);
+	healthbarMissing = updateIndividualBar(healthbarMissing, healthbarWidth, barHeight, Color.RED);
+	healthbarMax = updateIndividualBar(healthbarMax, healthbarWidth * health / maxHealth, barHeight, Color.green);
     }
 
     /**
      * Updates one of the healthbar layers of the LivingEntity
      */
-    protected SpriteTexture updateIndividualBar(SpriteTexture oldHealthbar, Vector2D healthbarSize, Color color){
-        return updateIndividualBar(oldHealthbar, healthbarSize, color, 0);
+    protected SpriteTexture updateIndividualBar(SpriteTexture healthbar, double width, double height, Color color){
+        return updateIndividualBar(healthbar, width, height, color, 0);
     }
 
     /**
-     * Updates one of the healthbar layers of the LivingEntity
+     * Updates one of the healthbar layers of the LivingEntity. The bar is created and added the first time, and after that it is moved and
+     * resized in place, so that no new sprites are created every tick.
+     *
+     * @return The bar, which should be passed in again on the next update.
      */
-    protected SpriteTexture updateIndividualBar(SpriteTexture oldHealthbar, Vector2D healthbarSize, Color color, double heightOffset){
-        Vector2D pos = new Vector2D(position.getX(), position.getY() + heightOffset);
-	SpriteTexture updatedHealthbar = new SpriteTexture(pos, healthbarSize, 0, color, SpriteType.RECTANGLE);
-	spriteHandler.renew(updatedHealthbar, oldHealthbar, SpriteLayer.LAST);
-	return updatedHealthbar;
+    protected SpriteTexture updateIndividualBar(SpriteTexture healthbar, double width, double height, Color color, double heightOffset){
+	if (healthbar == null) {
+	    healthbar = new SpriteTexture(new Vector2D(), new Vector2D(), 0, color, SpriteType.RECTANGLE);
+	    spriteHandler.add(healthbar, SpriteLayer.LAST);
+	}
+	healthbar.setBounds(position.getX(), position.getY() + heightOffset, width, height);
+	return healthbar;
     }
 
     public int getDirection() {
@@ -222,21 +203,7 @@ public abstract class LivingEntity extends Entity
      * Character model rotates in 8 directions, this gets the closest one
      */
     protected int getCharacterDirection() {
-	final double radian = Math.PI;
-
-	// Convert Rotation object to match character models (they don't have the same start point in rotation)
-	Rotation charRotation = new Rotation(-getRotation());
-	charRotation.addRadians(radian / 2); // this offsets the difference in start point of rotation
-
-	final double sliceOffset = radian/8; // Offset centres the "slices" of the circle to the character model
-				   // causing transitions between images to feel a lot more intuitive.
-
-	for (int i = 0; i < CHAR_DIRS; i++) {
-	    if (charRotation.getRadians() < (i + 1) * radian / 4 - sliceOffset) { //goes from 0 to 1.75*PI in 8 steps
-		return i;
-	    }
-	}
-	return 0; //Due to the offset the last 1/16th part of the circle will end up here
+	return Octant.fromRadians(getRotation());
     }
 
     /**
@@ -282,8 +249,8 @@ public abstract class LivingEntity extends Entity
         List<BufferedImage> bloodImages = imageLoader.getBackgroundBlood();
         BufferedImage bloodImage = bloodImages.get(RND.nextInt(bloodImages.size()));
 
-        int posX = (int) (getCollisionCenter().getX() - bloodImage.getWidth() / 2);
-	int posY = (int) (getCollisionCenter().getY() - bloodImage.getHeight() / 2);
+        int posX = (int) (getCollisionCenterX() - bloodImage.getWidth() / 2);
+	int posY = (int) (getCollisionCenterY() - bloodImage.getHeight() / 2);
 
 	spriteHandler.addToBackground(bloodImage, posX, posY);
     }
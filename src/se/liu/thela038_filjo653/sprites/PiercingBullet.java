@@ -1,21 +1,20 @@
 package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.IntSet;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-
 /**
  * Class representing a bullet that can pierce multiple enemies
  */
 public class PiercingBullet extends Bullet
 {
-    private List<Entity> hitEntities = new ArrayList<>();
+    // Handles of the entities that have been hit, so that hit entities are not kept after they are removed
+    private final IntSet hitEntities = new IntSet();
     private int amountOfHitEntities = 0;
 
     public PiercingBullet(final Vector2D position, final double rotation, final SpriteHandler spriteHandler,
@@ -25,15 +24,28 @@ public class PiercingBullet extends Bullet
 	super(position, rotation, spriteHandler, entityHandler, speed, damage, owner, imageLoader, audioLoader);
     }
 
+    @Override public void reset(final ReadOnlyVector2D position, final double rotation, final int speed, final int damage,
+				final LivingEntity owner)
+    {
+	super.reset(position, rotation, speed, damage, owner);
+	hitEntities.clear();
+	amountOfHitEntities = 0;
+    }
+
     @Override public void collideLivingEntity(final LivingEntity entity) {
-	hitEntities.removeIf(Objects::isNull);
-	if (!(entity.equals(owner) || hitEntities.contains(entity))){
-	    hitEntities.add(entity);
+	if (!entity.equals(owner) && hitEntities.add(entity.getHandle())){
 	    amountOfHitEntities ++;
 	    super.collideLivingEntity(entity);
 	}
     }
 
+    /**
+     * Every entity is only hit once, so contacts that stay do not need to be handled again.
+     */
+    @Override public boolean isRespondingToStay() {
+	return false;
+    }
+
     @Override public void baseCollide(final Entity entity) {
         final int pierceDepth = 3;
 	if (amountOfHitEntities >= pierceDepth) removeThis();
@@ -2,9 +2,11 @@ package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.WeaponInventory;
+import se.liu.thela038_filjo653.collision.CollisionShape;
 import se.liu.thela038_filjo653.input.GameKeyListener;
 import se.liu.thela038_filjo653.input.Key;
 import se.liu.thela038_filjo653.input.KeyEvent;
@@ -17,11 +19,7 @@ import se.liu.thela038_filjo653.weapons.WeaponFactory;
 import se.liu.thela038_filjo653.weapons.WeaponType;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.util.AbstractMap;
-import java.util.EnumMap;
-import java.util.Map;
 
 import static se.liu.thela038_filjo653.weapons.WeaponFactory.createWeapon;
 
@@ -98,7 +96,7 @@ public class Player extends LivingEntity implements GameKeyListener
      * Basically translates mouse position into player rotation
      */
     @Override protected void updateCharRotation() {
-	rotation.setRadians(getMouseRotation(new Vector2D())); //no offset when updating player rotation
+	rotation.setRadians(getMouseRotation(0, 0)); //no offset when updating player rotation
 	updateDirection();
     }
 
@@ -144,13 +142,12 @@ public class Player extends LivingEntity implements GameKeyListener
 	this.cash -= cash;
     }
 
-    private double getMouseRotation(Vector2D offset) {
+    private double getMouseRotation(double offsetX, double offsetY) {
 	int x = (int) screenLocation.getX() + (int) position.getX() +
-		(int) offset.getX(); //adjusts for the players position in the JComponent window
-	int y = (int) screenLocation.getY() + (int) position.getY() + (int) offset.getY();
-	Point playerScreenPosition = new Point(x, y);
+		(int) offsetX; //adjusts for the players position in the JComponent window
+	int y = (int) screenLocation.getY() + (int) position.getY() + (int) offsetY;
 	Point mouseScreenPosition = MouseInfo.getPointerInfo().getLocation();
-	return getAngleBetweenPoints(playerScreenPosition, mouseScreenPosition);
+	return Math.atan2(mouseScreenPosition.y - y, mouseScreenPosition.x - x);
     }
 
     public boolean isAlive() {
@@ -161,22 +158,15 @@ public class Player extends LivingEntity implements GameKeyListener
      * Returns mouse angle but adjusted for bullet offset from top left corner since offset changes angle
      */
     @Override public double getAttackRotation() {
-	Vector2D bulletOffset = weapon.getCorrectAttackOffset();
-	return getMouseRotation(bulletOffset);
+	ReadOnlyVector2D bulletOffset = weapon.getCorrectAttackOffset();
+	return getMouseRotation(bulletOffset.getX(), bulletOffset.getY());
     }
 
-    @Override public Area getCollisionArea() {
+    @Override protected void updateCollisionShape(final CollisionShape shape) {
 	final double adjustment = 0.3; //makes the hitbox smaller than the texture of the character
-	int adjustedY = (int) (getPosition().getY() + getSize().getY() * adjustment);
-	int adjustedHeight = (int) (getSize().getY() - getSize().getY() * adjustment);
-	return new Area(new Ellipse2D.Double(getPosition().getX(), adjustedY, getSize().getX(), adjustedHeight));
-    }
-
-    private double getAngleBetweenPoints(Point p1, Point p2)
-    {
-	double xDiff = p2.x - p1.x;
-	double yDiff = p2.y - p1.y;
-	return Math.atan2(yDiff, xDiff);
+	double adjustedY = position.getY() + size.getY() * adjustment;
+	double adjustedHeight = size.getY() - size.getY() * adjustment;
+	shape.setEllipse(position.getX(), adjustedY, size.getX(), adjustedHeight);
     }
 
     /**
@@ -185,29 +175,24 @@ public class Player extends LivingEntity implements GameKeyListener
      * @param keyStates Currently pressed keys.
      */
     private void handleMovementEvent(AbstractMap<Key, KeyState> keyStates) {
-	// Vector for storing input direction
-	Vector2D inputDir = new Vector2D();
-
-	// Map the Enum directions to Vector2D directions
-	Map<Key, Vector2D> directions = new EnumMap<>(Key.class);
+	// Add pressed keys to input direction, directly in the velocity
 	final double dirLength = 1;
-	directions.put(Key.UP, new Vector2D(0, -dirLength));
-	directions.put(Key.RIGHT, new Vector2D(dirLength, 0));
-	directions.put(Key.DOWN, new Vector2D(0, dirLength));
-	directions.put(Key.LEFT, new Vector2D(-dirLength, 0));
-
-	// Add pressed keys to input direction
-	for (final Map.Entry<Key, Vector2D> entry : directions.entrySet()) {
-	    if (keyStates.get(entry.getKey()) == KeyState.PRESSED) {
-	        inputDir.add(entry.getValue());
-	    }
+	velocity.set(0, 0);
+	if (keyStates.get(Key.UP) == KeyState.PRESSED) {
+	    velocity.addY(-dirLength);
+	}
+	if (keyStates.get(Key.RIGHT) == KeyState.PRESSED) {
+	    velocity.addX(dirLength);
+	}
+	if (keyStates.get(Key.DOWN) == KeyState.PRESSED) {
+	    velocity.addY(dirLength);
+	}
+	if (keyStates.get(Key.LEFT) == KeyState.PRESSED) {
+	    velocity.addX(-dirLength);
 	}
 
 	// Set to the correct speed
-	inputDir.setLength(SPEED);
-
-	// Update velocity
-	velocity.setTo(inputDir);
+	velocity.normalizeToLength(SPEED);
     }
 
     private void switchWeapon() {
@@ -237,10 +222,9 @@ public class Player extends LivingEntity implements GameKeyListener
 	ProjectileWeapon pWeapon = (ProjectileWeapon) this.weapon;
 
 	final int barHeight = 4;
-	Vector2D ammoBarSize = new Vector2D(size.getX(), barHeight);
-	Vector2D ammoBarRemainingSize = new Vector2D(ammoBarSize.getX() * pWeapon.getReloadTimeLeft() / pWeapon.getReloadTime(), barHeight);
+	double remainingWidth = size.getX() * pWeapon.getReloadTimeLeft() / pWeapon.getReloadTime();
 
 	final double reloadBarOffset = -10;
-	reloadBar = updateIndividualBar(reloadBar, ammoBarRemainingSize, Color.CYAN, reloadBarOffset);
+	reloadBar = updateIndividualBar(reloadBar, remainingWidth, barHeight, Color.CYAN, reloadBarOffset);
     }
 }
@@ -1,7 +1,7 @@
 package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.GameComponent;
-import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 
 import java.awt.*;
 
@@ -10,8 +10,16 @@ import java.awt.*;
  */
 public interface Sprite
 {
-    public Vector2D getPosition();
-    public Vector2D getSize();
+    /**
+     * Returns the position of the sprite. It is not a copy, so it changes when the sprite moves.
+     */
+    public ReadOnlyVector2D getPosition();
+
+    /**
+     * Returns the size of the sprite. It is not a copy, so it changes if the sprite is resized.
+     */
+    public ReadOnlyVector2D getSize();
+
     public double getRotation();
 
     public void draw(final Graphics g, final GameComponent gc);
@@ -1,6 +1,7 @@
 package se.liu.thela038_filjo653.sprites;
 
 import se.liu.thela038_filjo653.GameComponent;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.Rotation;
 import se.liu.thela038_filjo653.Vector2D;
 
@@ -74,14 +75,23 @@ public class SpriteTexture implements Sprite
 	return rotation.getRadians();
     }
 
-    @Override public Vector2D getPosition() {
+    @Override public ReadOnlyVector2D getPosition() {
 	return position;
     }
 
-    @Override public Vector2D getSize() {
+    @Override public ReadOnlyVector2D getSize() {
 	return size;
     }
 
+    /**
+     * Moves and resizes the texture in place, for textures like healthbars that follow an entity and would otherwise be replaced every
+     * tick. For a line the size is the other end of the line.
+     */
+    public void setBounds(final double x, final double y, final double width, final double height) {
+	position.set(x, y);
+	size.set(width, height);
+    }
+
     @Override public void draw(final Graphics g, final GameComponent gc) {
 	int positionX = (int) position.getX();
 	int positionY = (int) position.getY();
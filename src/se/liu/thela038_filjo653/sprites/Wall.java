@@ -4,12 +4,12 @@ import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.CollisionShape;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.resources.ImageLoader;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,17 +58,19 @@ public class Wall extends Entity
         return barrier;
     }
 
-    @Override public Area getCollisionArea() {
+    @Override public boolean isStatic() {
+        return true;
+    }
+
+    @Override protected void updateCollisionShape(final CollisionShape shape) {
         if (visible){ //the "car/obstacle wall" hitbox is different from invisible wall hitboxes
             final int adjustXPos = 20;
             final int adjustWidth = 40;
             final int adjustHeight = 50;
-            Rectangle collision =
-                    new Rectangle((int)getPosition().getX() + adjustXPos, (int)getPosition().getY(),
-                                         (int)getSize().getX() - adjustWidth, (int)getSize().getY() - adjustHeight);
-            return new Area(collision);
+            shape.setRectangle((int)position.getX() + adjustXPos, (int)position.getY(),
+                               (int)size.getX() - adjustWidth, (int)size.getY() - adjustHeight);
         }
-        else {return super.getCollisionArea();}
+        else {super.updateCollisionShape(shape);}
     }
 
 
@@ -1,6 +1,7 @@
 package se.liu.thela038_filjo653.sprites.collectables;
 
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -12,7 +13,7 @@ import se.liu.thela038_filjo653.sprites.Player;
  */
 public class CAmmo extends Collectable
 {
-    private final int ammoAmount;
+    private int ammoAmount;
 
     public CAmmo(final Vector2D position, final EntityHandler entityHandler, final SpriteHandler spriteHandler,
 		 final int ammoAmount, final ImageLoader imageLoader, final AudioLoader audioLoader)
@@ -22,6 +23,14 @@ public class CAmmo extends Collectable
 	this.ammoAmount = ammoAmount;
     }
 
+    /**
+     * Makes a removed collectable from a pool ready to be dropped again.
+     */
+    public void reset(final ReadOnlyVector2D position, final int ammoAmount) {
+	resetCollectable(position);
+	this.ammoAmount = ammoAmount;
+    }
+
     @Override protected void onCollect(final Player player) {
         player.addAmmunitionMagazines(ammoAmount);
     }
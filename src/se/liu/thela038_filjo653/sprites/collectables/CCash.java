@@ -1,6 +1,7 @@
 package se.liu.thela038_filjo653.sprites.collectables;
 
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -12,7 +13,7 @@ import se.liu.thela038_filjo653.sprites.Player;
  */
 public class CCash extends Collectable
 {
-    private final int cashAmount;
+    private int cashAmount;
 
     public CCash(final Vector2D position, final EntityHandler entityHandler, final SpriteHandler spriteHandler, final int cashAmount,
 		 final ImageLoader imageLoader, final AudioLoader audioLoader)
@@ -22,6 +23,14 @@ public class CCash extends Collectable
 	this.cashAmount = cashAmount;
     }
 
+    /**
+     * Makes a removed collectable from a pool ready to be dropped again.
+     */
+    public void reset(final ReadOnlyVector2D position, final int cashAmount) {
+	resetCollectable(position);
+	this.cashAmount = cashAmount;
+    }
+
     @Override protected void onCollect(final Player player) {
 	player.addCash(cashAmount);
     }
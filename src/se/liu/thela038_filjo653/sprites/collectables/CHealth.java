@@ -1,6 +1,7 @@
 package se.liu.thela038_filjo653.sprites.collectables;
 
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -13,7 +14,7 @@ import se.liu.thela038_filjo653.sprites.Player;
  */
 public class CHealth extends Collectable
 {
-    private final int healthAmount;
+    private int healthAmount;
 
     public CHealth(final Vector2D position, final EntityHandler entityHandler, final SpriteHandler spriteHandler,
 		   final int healthAmount, final ImageLoader imageLoader, final AudioLoader audioLoader)
@@ -23,6 +24,14 @@ public class CHealth extends Collectable
 	this.healthAmount = healthAmount;
     }
 
+    /**
+     * Makes a removed collectable from a pool ready to be dropped again.
+     */
+    public void reset(final ReadOnlyVector2D position, final int healthAmount) {
+	resetCollectable(position);
+	this.healthAmount = healthAmount;
+    }
+
     @Override protected void onCollect(final Player player) {
 	player.addHealth(healthAmount);
     }
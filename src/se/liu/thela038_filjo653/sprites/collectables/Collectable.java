@@ -2,6 +2,7 @@ package se.liu.thela038_filjo653.sprites.collectables;
 
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -36,6 +37,22 @@ public abstract class Collectable extends Entity
 	this.defaultPosition = position.copy();
     }
 
+    /**
+     * Places a removed collectable from a pool at a new position, with the same result as the constructor. The position is copied.
+     */
+    protected void resetCollectable(final ReadOnlyVector2D position) {
+	resetEntity(position, START_ROTATION);
+	defaultPosition.setTo(position);
+	bounceTimer.restart();
+    }
+
+    /**
+     * Collectables are dropped by most enemies, so they are reused. Every collectable has a reset method for its own amount.
+     */
+    @Override public boolean isPoolable() {
+	return true;
+    }
+
     @Override public void update(final DeltaTime deltaTime) {
 	super.update(deltaTime);
 
@@ -3,16 +3,17 @@ package se.liu.thela038_filjo653.weapons;
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.CollisionShape;
 import se.liu.thela038_filjo653.resources.AudioLoader;
 import se.liu.thela038_filjo653.sprites.CollisionType;
 import se.liu.thela038_filjo653.sprites.Entity;
 import se.liu.thela038_filjo653.sprites.LivingEntity;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,6 +29,10 @@ public class MeleeWeapon implements Weapon
     private WeaponType weaponType;
     protected AudioLoader audioLoader;
     private boolean isEnemy;
+    private final CollisionShape attackReach = new CollisionShape();
+    private final List<Entity> entitiesInRange = new ArrayList<>();
+    // Melee attacks start at the owner, so the offset is always zero
+    private final Vector2D attackOffset = new Vector2D();
 
 
     public MeleeWeapon(final LivingEntity owner, final int damage, final double cooldownTime, final int range, final WeaponType weaponType,
@@ -46,8 +51,8 @@ public class MeleeWeapon implements Weapon
 	return weaponType;
     }
 
-    @Override public Vector2D getCorrectAttackOffset() {
-	return new Vector2D();
+    @Override public ReadOnlyVector2D getCorrectAttackOffset() {
+	return attackOffset;
     }
 
     @Override public int getAmmo() {
@@ -56,21 +61,22 @@ public class MeleeWeapon implements Weapon
 
     @Override public void onWeaponAttack(final EntityHandler entityHandler, final SpriteHandler spriteHandler) {
         if (recharging <= 0) {
+	    // The values are read before the query, since the owner's position and size are live views
 	    double xPos = owner.getPosition().getX() - range;
 	    double yPos = owner.getPosition().getY() - range;
 	    double xSize = owner.getSize().getX() + range;
 	    double ySize = owner.getSize().getY() + range;
-	    Area attackReach = new Area(new Ellipse2D.Double(xPos, yPos, xSize, ySize));
+	    attackReach.setEllipse(xPos, yPos, xSize, ySize);
 
-	    List<Entity> entitiesInRange = entityHandler.entitiesInArea(attackReach);
+	    CollisionType targetType = isEnemy ? CollisionType.PLAYER : CollisionType.ENEMY;
+	    entityHandler.queryShape(attackReach, targetType, entitiesInRange);
 
 	    for (Entity entity : entitiesInRange) {
-	        CollisionType entityType = entity.getCollisionType();
-		if ((entityType == CollisionType.PLAYER && isEnemy) || (entityType == CollisionType.ENEMY && !isEnemy)) {
-		    ((LivingEntity) entity).subtractHealth(damage, owner);
-		    recharging = cooldownTime;
-		}
+		((LivingEntity) entity).subtractHealth(damage, owner);
+		recharging = cooldownTime;
 	    }
+	    // The entities are not kept until the next attack, so that removed entities can be garbage collected
+	    entitiesInRange.clear();
 	    if (isEnemy) audioLoader.playGrowlSound();
 	}
     }
@@ -3,6 +3,7 @@ package se.liu.thela038_filjo653.weapons;
 import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 import se.liu.thela038_filjo653.SpriteHandler;
 import se.liu.thela038_filjo653.Vector2D;
 import se.liu.thela038_filjo653.resources.AudioLoader;
@@ -38,6 +39,7 @@ public class ProjectileWeapon implements Weapon
     private WeaponType weaponType;
 
     private boolean reloading;
+    private final Vector2D muzzlePosition = new Vector2D();
 
     protected ProjectileWeapon(final LivingEntity owner, final int speed, final int damage, final double reloadTime,
 			       final double cooldownTime, final int maxAmmo, final List<BufferedImage> texture,
@@ -117,7 +119,7 @@ public class ProjectileWeapon implements Weapon
     /**
      * Gives the correct offset given the owner's direction which is one of 8 directions
      */
-    public Vector2D getCorrectAttackOffset() {
+    @Override public ReadOnlyVector2D getCorrectAttackOffset() {
 	return bulletOffset.get(owner.getDirection());
     }
 
@@ -136,23 +138,9 @@ public class ProjectileWeapon implements Weapon
      */
     public void onWeaponAttack(EntityHandler entityHandler, SpriteHandler spriteHandler) {
 	if (ammo > 0 && rechargeTimer.isComplete()) {
-	    Bullet bullet;
-	    Vector2D bulletPosition = Vector2D.getSum(owner.getPosition(), getCorrectAttackOffset());
-	    double bulletRotation = owner.getAttackRotation();
-	    switch (this.bulletType) {
-		case PIERCING -> {
-		    bullet = new PiercingBullet(bulletPosition, bulletRotation, spriteHandler, entityHandler, speed, damage, owner,
-						imageLoader, audioLoader);
-		}
-		case EXPLOSIVE -> {
-		    bullet = new ExplosiveBullet(bulletPosition, bulletRotation, spriteHandler, entityHandler, speed, damage, owner,
-						 imageLoader, audioLoader);
-		}
-		default -> {
-		    bullet = new Bullet(bulletPosition, bulletRotation, spriteHandler, entityHandler, speed, damage, owner, imageLoader,
-					audioLoader);
-		}
-	    }
+	    muzzlePosition.setTo(owner.getPosition());
+	    muzzlePosition.add(getCorrectAttackOffset());
+	    Bullet bullet = createBullet(entityHandler, spriteHandler, muzzlePosition, owner.getAttackRotation());
 
 	    playAttackSound();
 	    entityHandler.add(bullet);
@@ -162,6 +150,31 @@ public class ProjectileWeapon implements Weapon
 	}
     }
 
+    /**
+     * Takes a bullet of the weapon's bullet type from the entity handler's pools, or creates a new one if there is none to reuse.
+     */
+    private Bullet createBullet(EntityHandler entityHandler, SpriteHandler spriteHandler, Vector2D position, double rotation) {
+	Class<? extends Bullet> type = switch (bulletType) {
+	    case PIERCING -> PiercingBullet.class;
+	    case EXPLOSIVE -> ExplosiveBullet.class;
+	    default -> Bullet.class;
+	};
+	Bullet bullet = entityHandler.getPools().acquire(type);
+	if (bullet != null) {
+	    bullet.reset(position, rotation, speed, damage, owner);
+	    return bullet;
+	}
+
+	// A new bullet keeps the position, so it needs its own copy
+	return switch (bulletType) {
+	    case PIERCING -> new PiercingBullet(position.copy(), rotation, spriteHandler, entityHandler, speed, damage, owner, imageLoader,
+						audioLoader);
+	    case EXPLOSIVE -> new ExplosiveBullet(position.copy(), rotation, spriteHandler, entityHandler, speed, damage, owner, imageLoader,
+						  audioLoader);
+	    default -> new Bullet(position.copy(), rotation, spriteHandler, entityHandler, speed, damage, owner, imageLoader, audioLoader);
+	};
+    }
+
     @Override public void draw(Graphics g, GameComponent gc, int direction, int x, int y, int textureSideLength) {
 	//offset needed since weapon sprite sheets have different dimensions from char sheets
 	int offset = (getTexture().get(0).getWidth() - textureSideLength) / 2;
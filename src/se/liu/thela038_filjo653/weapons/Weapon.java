@@ -4,7 +4,7 @@ import se.liu.thela038_filjo653.time.DeltaTime;
 import se.liu.thela038_filjo653.EntityHandler;
 import se.liu.thela038_filjo653.GameComponent;
 import se.liu.thela038_filjo653.SpriteHandler;
-import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.ReadOnlyVector2D;
 
 import java.awt.*;
 
@@ -16,7 +16,8 @@ public interface Weapon
 {
     public void update(DeltaTime deltaTime);
     public void draw(Graphics g, GameComponent gc, int direction, int x, int y, int textureSideLength);
-    public Vector2D getCorrectAttackOffset();
+    // The offset is shared by every attack, so it is read only
+    public ReadOnlyVector2D getCorrectAttackOffset();
     public WeaponType getWeaponType();
     public int getAmmo();
     public void onWeaponAttack(EntityHandler entityHandler, SpriteHandler spriteHandler);
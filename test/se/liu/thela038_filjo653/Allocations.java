@@ -0,0 +1,19 @@
+package se.liu.thela038_filjo653;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how much memory the benchmarks allocate, by asking the JVM how many bytes the current thread has allocated so far.
+ */
+public final class Allocations
+{
+    private Allocations() {}
+
+    /**
+     * Returns the number of bytes allocated by the current thread since it started. The difference between two calls is what the code in
+     * between allocated.
+     */
+    public static long getAllocatedBytes() {
+	return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
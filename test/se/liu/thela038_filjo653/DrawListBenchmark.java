@@ -0,0 +1,57 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.sprites.Sprite;
+import se.liu.thela038_filjo653.sprites.SpriteTexture;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the memory allocated per frame when filling the draw list against copying the sprites into new lists, which is how the
+ * sprites were collected before.
+ */
+public class DrawListBenchmark
+{
+    public static void main(String[] args) {
+	final int spriteCount = 2000;
+	final int frames = 1000;
+	final int warmupFrames = 100;
+
+	BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+	List<Sprite> sprites = new ArrayList<>();
+	for (int i = 0; i < spriteCount; i++) {
+	    sprites.add(new SpriteTexture(new Vector2D(), 0, image));
+	}
+	List<Sprite> view = Collections.unmodifiableList(sprites);
+
+	DrawList drawList = new DrawList();
+	for (int frame = 0; frame < warmupFrames; frame++) {
+	    drawList.addAll(view);
+	    drawList.publish();
+	}
+	long before = Allocations.getAllocatedBytes();
+	for (int frame = 0; frame < frames; frame++) {
+	    drawList.addAll(view);
+	    drawList.publish();
+	}
+	long drawListBytes = Allocations.getAllocatedBytes() - before;
+
+	before = Allocations.getAllocatedBytes();
+	int drawn = 0;
+	for (int frame = 0; frame < frames; frame++) {
+	    List<Sprite> copy = new ArrayList<>();
+	    for (Sprite sprite : new ArrayList<>(sprites)) {
+		copy.add(sprite);
+	    }
+	    drawn += copy.size();
+	}
+	long copyBytes = Allocations.getAllocatedBytes() - before;
+
+	assert drawListBytes < copyBytes;
+	System.out.printf("Per frame with %d sprites: draw list %d bytes, copied lists %d bytes (%d drawn)%n", spriteCount,
+			  drawListBytes / frames, copyBytes / frames, drawn / frames);
+    }
+}
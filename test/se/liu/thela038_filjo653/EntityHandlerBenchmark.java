@@ -0,0 +1,190 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.collision.CollisionMatrix;
+import se.liu.thela038_filjo653.collision.CollisionShape;
+import se.liu.thela038_filjo653.sprites.CollisionType;
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks for the queries compared to going through every entity. The entities are placeholders without textures. The results of
+ * the queries are compared against the linear scans.
+ */
+public class EntityHandlerBenchmark
+{
+    public static void main(String[] args) {
+	Random rnd = new Random(1);
+	benchmarkNearest(rnd);
+	benchmarkRaycast(rnd);
+    }
+
+    /**
+     * Benchmark for the nearest queries, with the entities spread out with the same density for every number of entities.
+     */
+    private static void benchmarkNearest(Random rnd) {
+	final int[] entityCounts = { 100, 1000, 10000 };
+	final double entitiesPerSquarePixel = 1 / 4000.0;
+	final double entitySize = 40;
+	final int queryCount = 10000;
+	final int nearestCount = 5;
+	final double maxRadius = 500;
+	final double nanosInMilli = 1.0e6;
+
+	for (int entityCount : entityCounts) {
+	    EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	    List<Entity> entities = new ArrayList<>();
+	    double worldSide = Math.sqrt(entityCount / entitiesPerSquarePixel);
+	    for (int i = 0; i < entityCount; i++) {
+		CollisionType type = rnd.nextBoolean() ? CollisionType.ENEMY : CollisionType.COLLECTABLE;
+		addPlaceholder(entityHandler, entities, rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, entitySize, entitySize, type,
+			       false);
+	    }
+	    entityHandler.internalUpdate();
+
+	    double[] queryX = new double[queryCount];
+	    double[] queryY = new double[queryCount];
+	    for (int i = 0; i < queryCount; i++) {
+		queryX[i] = rnd.nextDouble() * worldSide;
+		queryY[i] = rnd.nextDouble() * worldSide;
+	    }
+
+	    List<Entity> result = new ArrayList<>();
+	    long start = System.nanoTime();
+	    for (int i = 0; i < queryCount; i++) {
+		entityHandler.queryNearest(queryX[i], queryY[i], maxRadius, CollisionType.ENEMY, nearestCount, result);
+	    }
+	    long indexedTime = System.nanoTime() - start;
+
+	    List<Entity> expected = new ArrayList<>();
+	    start = System.nanoTime();
+	    for (int i = 0; i < queryCount; i++) {
+		linearNearest(entities, queryX[i], queryY[i], maxRadius, CollisionType.ENEMY, nearestCount, expected);
+	    }
+	    long linearTime = System.nanoTime() - start;
+
+	    for (int i = 0; i < queryCount; i++) {
+		entityHandler.queryNearest(queryX[i], queryY[i], maxRadius, CollisionType.ENEMY, nearestCount, result);
+		linearNearest(entities, queryX[i], queryY[i], maxRadius, CollisionType.ENEMY, nearestCount, expected);
+		assert result.equals(expected);
+	    }
+	    System.out.printf("%6d entities: nearest indexed %8.3f ms, linear scan %8.3f ms%n", entityCount, indexedTime / nanosInMilli,
+			      linearTime / nanosInMilli);
+	}
+    }
+
+    private static void linearNearest(List<Entity> entityList, double x, double y, double maxRadius, CollisionType type, int count,
+				      List<Entity> result)
+    {
+	List<Entity> inRange = new ArrayList<>();
+	for (Entity entity : entityList) {
+	    if (entity.getCollisionType() == type && EntityHandler.getCenterDistance(entity, x, y) <= maxRadius) {
+		inRange.add(entity);
+	    }
+	}
+	inRange.sort(Comparator.comparingDouble(entity -> EntityHandler.getCenterDistance(entity, x, y)));
+	result.clear();
+	result.addAll(inRange.subList(0, Math.min(count, inRange.size())));
+    }
+
+    /**
+     * Benchmark for raycasts in a world with 5000 entities and some walls. Line of sight casts from enemies to a point, stopping at the
+     * first wall or player, are compared against testing every entity.
+     */
+    private static void benchmarkRaycast(Random rnd) {
+	final int entityCount = 5000;
+	final int wallCount = 200;
+	final double worldSide = 4000;
+	final double entitySize = 40;
+	final double maxWallSize = 200;
+	final int castCount = 20000;
+	final double maxCastDistance = 1500;
+	final double nanosInSecond = 1.0e9;
+	final double distanceTolerance = 1.0e-6;
+
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	List<Entity> placeholders = new ArrayList<>();
+	for (int i = 0; i < entityCount; i++) {
+	    CollisionType type = i % 100 == 0 ? CollisionType.PLAYER : CollisionType.ENEMY;
+	    addPlaceholder(entityHandler, placeholders, rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, entitySize, entitySize,
+			   type, false);
+	}
+	for (int i = 0; i < wallCount; i++) {
+	    addPlaceholder(entityHandler, placeholders, rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide,
+			   1 + rnd.nextDouble() * maxWallSize, 1 + rnd.nextDouble() * maxWallSize, CollisionType.WALL, true);
+	}
+	entityHandler.internalUpdate();
+
+	double[] casts = new double[castCount * 4];
+	for (int i = 0; i < casts.length; i++) {
+	    casts[i] = i % 4 < 2 ? rnd.nextDouble() * worldSide : rnd.nextDouble() * 2 - 1;
+	}
+	int lineOfSightMask = CollisionMatrix.layer(CollisionType.WALL) | CollisionMatrix.layer(CollisionType.PLAYER);
+
+	RaycastResult result = new RaycastResult();
+	long start = System.nanoTime();
+	for (int i = 0; i < castCount; i++) {
+	    entityHandler.raycast(casts[4 * i], casts[4 * i + 1], casts[4 * i + 2], casts[4 * i + 3], maxCastDistance, lineOfSightMask,
+				  result);
+	}
+	long indexedTime = System.nanoTime() - start;
+
+	RaycastResult expected = new RaycastResult();
+	start = System.nanoTime();
+	for (int i = 0; i < castCount; i++) {
+	    linearRaycast(placeholders, casts[4 * i], casts[4 * i + 1], casts[4 * i + 2], casts[4 * i + 3], maxCastDistance,
+			  lineOfSightMask, expected);
+	}
+	long linearTime = System.nanoTime() - start;
+
+	for (int i = 0; i < castCount; i++) {
+	    entityHandler.raycastAll(casts[4 * i], casts[4 * i + 1], casts[4 * i + 2], casts[4 * i + 3], maxCastDistance,
+				     CollisionMatrix.ALL_LAYERS, result);
+	    linearRaycast(placeholders, casts[4 * i], casts[4 * i + 1], casts[4 * i + 2], casts[4 * i + 3], maxCastDistance,
+			  CollisionMatrix.ALL_LAYERS, expected);
+	    assert result.size() == expected.size();
+	    for (int hit = 0; hit < result.size(); hit++) {
+		// The indexed cast can shorten the ray, which changes the rounding slightly
+		assert Math.abs(result.getDistance(hit) - expected.getDistance(hit)) < distanceTolerance;
+	    }
+	}
+	System.out.printf("%6d entities: raycast indexed %10.0f casts/s, linear scan %10.0f casts/s%n", entityCount,
+			  castCount * nanosInSecond / indexedTime, castCount * nanosInSecond / linearTime);
+    }
+
+    private static void linearRaycast(List<Entity> entities, double x, double y, double directionX, double directionY,
+				      double maxDistance, int layerMask, RaycastResult result)
+    {
+	double length = Math.sqrt(directionX * directionX + directionY * directionY);
+	result.reset(x, y, directionX / length, directionY / length, true);
+	for (Entity entity : entities) {
+	    if ((layerMask & CollisionMatrix.layer(entity.getCollisionType())) != 0) {
+		double time = entity.getCollisionShape().raycast(x, y, directionX / length * maxDistance, directionY / length * maxDistance);
+		if (time != CollisionShape.NO_CONTACT) {
+		    result.addHit(entity, time * maxDistance);
+		}
+	    }
+	}
+    }
+
+    private static void addPlaceholder(EntityHandler entityHandler, List<Entity> placeholders, double x, double y, double width,
+				       double height, CollisionType type, boolean isStatic)
+    {
+	Entity entity = new Entity(new Vector2D(x, y), new Vector2D(width, height), 0, null, null, entityHandler, null, null)
+	{
+	    {
+		setCollisionType(type);
+	    }
+
+	    @Override public boolean isStatic() {
+		return isStatic;
+	    }
+	};
+	placeholders.add(entity);
+	entityHandler.add(entity);
+    }
+}
@@ -0,0 +1,136 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.sprites.CollisionType;
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the contacts that the EntityHandler reports to entities, over several ticks: the first tick of a contact, the ticks that the
+ * entities stay in contact, the tick that they separate, and an entity that is removed while still in contact. Bullets react to plain
+ * entities but not the other way around, so only the bullet gets collide calls, while both get the enter, stay and exit calls.
+ */
+public class EntityHandlerContactTest
+{
+    private static final double SIZE = 10;
+
+    public static void main(String[] args) {
+	testTouchStayAndSeparate(true);
+	testTouchStayAndSeparate(false);
+	testRemovedWhileInContact();
+    }
+
+    private static void testTouchStayAndSeparate(final boolean respondingToStay) {
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	ContactRecorder bullet = new ContactRecorder(new Vector2D(0, 0), CollisionType.BULLET, respondingToStay, entityHandler);
+	Vector2D otherPosition = new Vector2D(SIZE / 2, 0);
+	ContactRecorder other = new ContactRecorder(otherPosition, CollisionType.ENTITY, false, entityHandler);
+	entityHandler.add(bullet);
+	entityHandler.add(other);
+	// Added entities are only tested from the next tick
+	entityHandler.internalUpdate();
+	assert bullet.collisions.isEmpty() && other.collisions.isEmpty();
+
+	// Touch
+	entityHandler.internalUpdate();
+	assert bullet.collisions.equals(List.of(other)) : bullet.collisions;
+	assert other.collisions.isEmpty() : other.collisions;
+	assert bullet.enters.equals(List.of(other)) && other.enters.equals(List.of(bullet));
+	assert bullet.stays.isEmpty() && other.stays.isEmpty();
+
+	// Stay, only entities that respond to staying contacts are called again
+	entityHandler.internalUpdate();
+	entityHandler.internalUpdate();
+	int expectedCollisions = respondingToStay ? 3 : 1;
+	assert bullet.collisions.size() == expectedCollisions : bullet.collisions;
+	assert bullet.exits.isEmpty() && other.exits.isEmpty();
+	// Stay is called whether or not the entity responds to staying contacts
+	assert bullet.stays.equals(List.of(other, other)) && other.stays.equals(List.of(bullet, bullet));
+	assert bullet.enters.size() == 1 && other.enters.size() == 1;
+
+	// Separate
+	otherPosition.setX(SIZE * 2);
+	entityHandler.internalUpdate();
+	assert bullet.collisions.size() == expectedCollisions : bullet.collisions;
+	assert bullet.exits.equals(List.of(other)) : bullet.exits;
+	assert other.exits.equals(List.of(bullet)) : other.exits;
+
+	// An ended contact is only reported once
+	entityHandler.internalUpdate();
+	assert bullet.exits.size() == 1 && other.exits.size() == 1;
+	entityHandler.shutdown();
+    }
+
+    private static void testRemovedWhileInContact() {
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	ContactRecorder bullet = new ContactRecorder(new Vector2D(0, 0), CollisionType.BULLET, true, entityHandler);
+	ContactRecorder other = new ContactRecorder(new Vector2D(SIZE / 2, 0), CollisionType.ENTITY, false, entityHandler);
+	entityHandler.add(bullet);
+	entityHandler.add(other);
+	entityHandler.internalUpdate();
+	entityHandler.internalUpdate();
+	assert bullet.collisions.equals(List.of(other)) : bullet.collisions;
+
+	// The entity is removed at the end of the tick, so the contact stays during it. Then the contact ends, and only the bullet is told.
+	entityHandler.remove(other);
+	entityHandler.internalUpdate();
+	assert bullet.collisions.size() == 2 : bullet.collisions;
+	assert entityHandler.getEntity(other.getHandle()) == null;
+	assert bullet.exits.equals(List.of(other)) : bullet.exits;
+	assert other.exits.isEmpty() : other.exits;
+
+	// A new entity far away does not get the contact of the removed one
+	ContactRecorder replacement = new ContactRecorder(new Vector2D(SIZE * 10, 0), CollisionType.ENTITY, false, entityHandler);
+	entityHandler.add(replacement);
+
+	// The ended contact is not reported again
+	entityHandler.internalUpdate();
+	entityHandler.internalUpdate();
+	assert bullet.collisions.size() == 2 : bullet.collisions;
+	assert bullet.exits.size() == 1 : bullet.exits;
+	assert other.exits.isEmpty() && replacement.exits.isEmpty() && replacement.collisions.isEmpty();
+	entityHandler.shutdown();
+    }
+
+    /**
+     * Entity without a texture that writes down the entities it collides with, and the contacts that start, stay and end.
+     */
+    private static class ContactRecorder extends Entity
+    {
+	private final boolean respondingToStay;
+	private final List<Entity> collisions = new ArrayList<>();
+	private final List<Entity> enters = new ArrayList<>();
+	private final List<Entity> stays = new ArrayList<>();
+	private final List<Entity> exits = new ArrayList<>();
+
+	private ContactRecorder(final Vector2D position, final CollisionType type, final boolean respondingToStay,
+				final EntityHandler entityHandler)
+	{
+	    super(position, new Vector2D(SIZE, SIZE), 0, null, null, entityHandler, null, null);
+	    this.respondingToStay = respondingToStay;
+	    setCollisionType(type);
+	}
+
+	@Override public void baseCollide(final Entity entity) {
+	    collisions.add(entity);
+	}
+
+	@Override public boolean isRespondingToStay() {
+	    return respondingToStay;
+	}
+
+	@Override public void onCollisionEnter(final Entity entity) {
+	    enters.add(entity);
+	}
+
+	@Override public void onCollisionStay(final Entity entity) {
+	    stays.add(entity);
+	}
+
+	@Override public void onCollisionExit(final Entity entity) {
+	    exits.add(entity);
+	}
+    }
+}
@@ -0,0 +1,58 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.sprites.CollisionType;
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests queries after a tick where a collision ran a query and then removed an entity. The query builds the grid while the removed
+ * entity is still there, so the grid must not be used after the removal has changed the indices of the other entities.
+ */
+public class EntityHandlerQueryTest
+{
+    private static final double SIZE = 10;
+
+    public static void main(String[] args) {
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	Entity target = createEntity(new Vector2D(SIZE / 2, 0), CollisionType.ENTITY, entityHandler);
+	Entity bullet = new Entity(new Vector2D(0, 0), new Vector2D(SIZE, SIZE), 0, null, null, entityHandler, null, null)
+	{
+	    {
+		setCollisionType(CollisionType.BULLET);
+	    }
+
+	    @Override public void baseCollide(final Entity entity) {
+		List<Entity> hits = new ArrayList<>();
+		entityHandler.queryRadius(getCollisionCenterX(), getCollisionCenterY(), SIZE, null, hits);
+		entityHandler.remove(entity);
+	    }
+	};
+	Entity farAway = createEntity(new Vector2D(SIZE * 10, 0), CollisionType.ENTITY, entityHandler);
+	entityHandler.add(target);
+	entityHandler.add(bullet);
+	entityHandler.add(farAway);
+	// Added entities are only tested from the next tick
+	entityHandler.internalUpdate();
+	entityHandler.internalUpdate();
+	assert entityHandler.getEntity(target.getHandle()) == null;
+
+	List<Entity> result = new ArrayList<>();
+	entityHandler.queryRectangle(SIZE * 10, 0, SIZE, SIZE, null, result);
+	assert result.equals(List.of(farAway)) : result;
+	entityHandler.queryRectangle(0, 0, SIZE, SIZE, null, result);
+	assert result.equals(List.of(bullet)) : result;
+	entityHandler.shutdown();
+    }
+
+    private static Entity createEntity(final Vector2D position, final CollisionType type, final EntityHandler entityHandler) {
+	return new Entity(position, new Vector2D(SIZE, SIZE), 0, null, null, entityHandler, null, null)
+	{
+	    {
+		setCollisionType(type);
+	    }
+	};
+    }
+}
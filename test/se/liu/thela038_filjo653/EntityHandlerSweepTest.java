@@ -0,0 +1,85 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.collision.CollisionShape;
+import se.liu.thela038_filjo653.sprites.CollisionType;
+import se.liu.thela038_filjo653.sprites.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests that a swept bullet hits the same things whichever order it and its target were added in. The target is a circle, and the
+ * bullet passes over the corner of its bounding box, which only counts as a hit if the circle is swept as a box instead of the bullet.
+ */
+public class EntityHandlerSweepTest
+{
+    private static final double TARGET_SIZE = 100;
+    private static final double BULLET_SIZE = 2;
+
+    public static void main(String[] args) {
+	for (boolean bulletFirst : new boolean[] { true, false }) {
+	    // Through the middle of the circle, ending on the other side of it
+	    assert isHit(bulletFirst, new Vector2D(120, 45), 140, 0);
+	    // Past the corner of the bounding box, outside the circle
+	    assert !isHit(bulletFirst, new Vector2D(20, -10), 30, -30);
+	}
+    }
+
+    private static boolean isHit(final boolean bulletFirst, final Vector2D bulletEnd, final double sweepX, final double sweepY) {
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	SweptBullet bullet = new SweptBullet(bulletEnd, sweepX, sweepY, entityHandler);
+	Entity target = new Entity(new Vector2D(0, 0), new Vector2D(TARGET_SIZE, TARGET_SIZE), 0, null, null, entityHandler, null, null)
+	{
+	    {
+		setCollisionType(CollisionType.ENTITY);
+	    }
+
+	    @Override protected void updateCollisionShape(final CollisionShape shape) {
+		shape.setEllipse(position.getX(), position.getY(), size.getX(), size.getY());
+	    }
+	};
+	if (bulletFirst) {
+	    entityHandler.add(bullet);
+	    entityHandler.add(target);
+	} else {
+	    entityHandler.add(target);
+	    entityHandler.add(bullet);
+	}
+	// Added entities are only tested from the next tick
+	entityHandler.internalUpdate();
+	entityHandler.internalUpdate();
+	entityHandler.shutdown();
+	assert bullet.collisions.isEmpty() || bullet.collisions.equals(List.of(target)) : bullet.collisions;
+	return !bullet.collisions.isEmpty();
+    }
+
+    /**
+     * Bullet without a texture that always reports the same movement, and writes down the entities it collides with.
+     */
+    private static class SweptBullet extends Entity
+    {
+	private final double sweepX;
+	private final double sweepY;
+	private final List<Entity> collisions = new ArrayList<>();
+
+	private SweptBullet(final Vector2D position, final double sweepX, final double sweepY, final EntityHandler entityHandler) {
+	    super(position, new Vector2D(BULLET_SIZE, BULLET_SIZE), 0, null, null, entityHandler, null, null);
+	    this.sweepX = sweepX;
+	    this.sweepY = sweepY;
+	    setCollisionType(CollisionType.BULLET);
+	}
+
+	@Override public double getSweepX() {
+	    return sweepX;
+	}
+
+	@Override public double getSweepY() {
+	    return sweepY;
+	}
+
+	@Override public void baseCollide(final Entity entity) {
+	    collisions.add(entity);
+	}
+    }
+}
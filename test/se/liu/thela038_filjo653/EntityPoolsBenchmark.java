@@ -0,0 +1,110 @@
+package se.liu.thela038_filjo653;
+
+import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.sprites.Bullet;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares shooting with new bullets to shooting with pooled bullets. A number of bullets are in flight at once, and the oldest one is
+ * removed for every new shot, like the bullets of a late wave. The bytes allocated and the collections are read from the management
+ * beans.
+ */
+public class EntityPoolsBenchmark
+{
+    public static void main(String[] args) {
+	ImageLoader imageLoader = new ImageLoader();
+	try {
+	    imageLoader.loadImages();
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+	testRetire(imageLoader);
+	// The first pass only warms up the JIT
+	for (int pass = 0; pass < 2; pass++) {
+	    for (boolean pooled : new boolean[] { false, true }) {
+		benchmark(imageLoader, pooled, pass > 0);
+	    }
+	}
+    }
+
+    private static void benchmark(final ImageLoader imageLoader, final boolean pooled, final boolean print) {
+	final int shots = 2_000_000;
+	final int bulletsInFlight = 300;
+	final int speed = 1000;
+	final int damage = 10;
+	final double bytesInMegabyte = 1024 * 1024;
+	final double nanosInMilli = 1.0e6;
+	EntityPools pools = new EntityPools();
+	Vector2D muzzle = new Vector2D(100, 100);
+	Bullet[] inFlight = new Bullet[bulletsInFlight];
+
+	long bytesBefore = Allocations.getAllocatedBytes();
+	long collectionsBefore = getCollectionCount();
+	long start = System.nanoTime();
+	for (int shot = 0; shot < shots; shot++) {
+	    int index = shot % bulletsInFlight;
+	    if (inFlight[index] != null && pooled) {
+		pools.release(inFlight[index]);
+	    }
+	    double rotation = shot * 0.01;
+	    Bullet bullet = pooled ? pools.acquire(Bullet.class) : null;
+	    if (bullet == null) {
+		bullet = new Bullet(muzzle.copy(), rotation, null, null, speed, damage, null, imageLoader, null);
+	    } else {
+		bullet.reset(muzzle, rotation, speed, damage, null);
+	    }
+	    inFlight[index] = bullet;
+	}
+	long time = System.nanoTime() - start;
+	long bytes = Allocations.getAllocatedBytes() - bytesBefore;
+	long collections = getCollectionCount() - collectionsBefore;
+
+	if (print) {
+	    System.out.printf("%-6s %d shots: %7.1f ms, %8.1f MB allocated, %3d collections, pool hit rate %.3f%n", pooled ? "pooled" : "new",
+			      shots, time / nanosInMilli, bytes / bytesInMegabyte, collections, pools.getHitRate());
+	}
+    }
+
+    /**
+     * A bullet removed while the drawing thread draws a frame that holds it must not be reused until the drawing thread has taken a newer
+     * frame.
+     */
+    private static void testRetire(final ImageLoader imageLoader) {
+	EntityPools pools = new EntityPools();
+	DrawList drawList = new DrawList();
+	Bullet bullet = new Bullet(new Vector2D(), 0, null, null, 1, 1, null, imageLoader, null);
+	BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+	Graphics graphics = image.getGraphics();
+
+	drawList.add(bullet);
+	drawList.publish();
+	pools.onFramePublished(drawList.getPublishedFrames(), drawList.getDrawingFrame());
+	drawList.draw(graphics, null);
+	pools.retire(bullet);
+
+	// The next frame does not hold the bullet, but the drawing thread has not taken it yet
+	drawList.publish();
+	pools.onFramePublished(drawList.getPublishedFrames(), drawList.getDrawingFrame());
+	assert pools.acquire(Bullet.class) == null;
+
+	drawList.draw(graphics, null);
+	drawList.publish();
+	pools.onFramePublished(drawList.getPublishedFrames(), drawList.getDrawingFrame());
+	assert pools.acquire(Bullet.class) == bullet;
+	graphics.dispose();
+    }
+
+    private static long getCollectionCount() {
+	long count = 0;
+	for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+	    count += collector.getCollectionCount();
+	}
+	return count;
+    }
+}
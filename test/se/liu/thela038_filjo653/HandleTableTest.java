@@ -0,0 +1,34 @@
+package se.liu.thela038_filjo653;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests that removed handles stop being valid, and that adding and removing one object at a time, like a bullet that is shot and hits
+ * over and over, does not give out the same handle again.
+ */
+public class HandleTableTest
+{
+    public static void main(String[] args) {
+	HandleTable<String> table = new HandleTable<>();
+	int first = table.add("first");
+	int second = table.add("second");
+	assert table.get(first).equals("first") && table.get(second).equals("second");
+	table.remove(first);
+	assert table.get(first) == null && table.get(second).equals("second");
+	assert table.get(HandleTable.NO_HANDLE) == null;
+
+	// More cycles than the generation of a single slot can count
+	final int cycles = 10000;
+	Set<Integer> handles = new HashSet<>();
+	handles.add(first);
+	handles.add(second);
+	for (int i = 0; i < cycles; i++) {
+	    int handle = table.add("bullet");
+	    assert handles.add(handle) : "handle " + handle + " given out twice";
+	    assert table.get(first) == null;
+	    table.remove(handle);
+	}
+	assert table.get(second).equals("second");
+    }
+}
@@ -0,0 +1,88 @@
+package se.liu.thela038_filjo653;
+
+import java.util.Random;
+
+/**
+ * Tests the directions against the old way of finding them, and measures the time of both. Angles very close to the border between
+ * two directions can end up on either side because of rounding, and are not compared.
+ */
+public class OctantBenchmark
+{
+    private static final double RADIANS_PER_OCTANT = Math.PI / 4;
+
+    public static void main(String[] args) {
+	final int testCount = 1000000;
+	final double borderMargin = 1.0e-9;
+	final double maxRadians = 20;
+	Random rnd = new Random(1);
+
+	assert Octant.fromVector(0, 0) == fromRadiansBySlices(0);
+	for (int octant = 0; octant < Octant.COUNT; octant++) {
+	    double radians = Math.PI / 2 - octant * RADIANS_PER_OCTANT;
+	    assert Octant.fromVector(Math.cos(radians), Math.sin(radians)) == octant;
+	    assert Octant.fromRadians(radians) == octant;
+	}
+
+	double[] angles = new double[testCount];
+	double[] xs = new double[testCount];
+	double[] ys = new double[testCount];
+	for (int i = 0; i < testCount; i++) {
+	    angles[i] = (rnd.nextDouble() * 2 - 1) * maxRadians;
+	    double length = rnd.nextDouble() * 100;
+	    xs[i] = Math.cos(angles[i]) * length;
+	    ys[i] = Math.sin(angles[i]) * length;
+
+	    double octants = (Math.PI / 2 - angles[i]) / RADIANS_PER_OCTANT + 0.5;
+	    if (Math.abs(octants - Math.rint(octants)) < borderMargin) {
+		continue;
+	    }
+	    int expected = fromRadiansBySlices(angles[i]);
+	    assert Octant.fromRadians(angles[i]) == expected : angles[i];
+	    assert length == 0 || Octant.fromVector(xs[i], ys[i]) == expected : angles[i];
+	}
+
+	final int runs = 5;
+	final double nanosInMilli = 1.0e6;
+	for (int run = 0; run < runs; run++) {
+	    int slicesSum = 0;
+	    long start = System.nanoTime();
+	    for (double angle : angles) {
+		slicesSum += fromRadiansBySlices(angle);
+	    }
+	    long slicesTime = System.nanoTime() - start;
+
+	    int radiansSum = 0;
+	    start = System.nanoTime();
+	    for (double angle : angles) {
+		radiansSum += Octant.fromRadians(angle);
+	    }
+	    long radiansTime = System.nanoTime() - start;
+
+	    int vectorSum = 0;
+	    start = System.nanoTime();
+	    for (int i = 0; i < testCount; i++) {
+		vectorSum += Octant.fromVector(xs[i], ys[i]);
+	    }
+	    long vectorTime = System.nanoTime() - start;
+
+	    System.out.printf("%d directions: slices %.2f ms, fromRadians %.2f ms, fromVector %.2f ms (sums %d %d %d)%n", testCount,
+			      slicesTime / nanosInMilli, radiansTime / nanosInMilli, vectorTime / nanosInMilli, slicesSum, radiansSum,
+			      vectorSum);
+	}
+    }
+
+    /**
+     * The way LivingEntity found the direction before this class, by normalizing a Rotation and going through the slices.
+     */
+    private static int fromRadiansBySlices(final double radians) {
+	Rotation charRotation = new Rotation(-radians);
+	charRotation.addRadians(Math.PI / 2);
+	final double sliceOffset = Math.PI / 8;
+	for (int i = 0; i < Octant.COUNT; i++) {
+	    if (charRotation.getRadians() < (i + 1) * Math.PI / 4 - sliceOffset) {
+		return i;
+	    }
+	}
+	return 0;
+    }
+}
@@ -0,0 +1,97 @@
+package se.liu.thela038_filjo653;
+
+import java.util.Random;
+
+/**
+ * Tests the in place operations of Vector2D against the ones that create new vectors, and compares setLength against the old way of
+ * setting the length through the angle, for accuracy and for time.
+ */
+public class Vector2DTest
+{
+    public static void main(String[] args) {
+	final int testLength = 100;
+	final double comparisonPrecision = 0.0001;
+
+	Vector2D v1 = new Vector2D(3, -4);
+	Vector2D v2 = new Vector2D(-7, 2);
+	Vector2D v3 = v1.copy();
+	final double factor = 0.25;
+	v3.addScaled(v2, factor);
+	assert v3.equals(Vector2D.getSum(v1, Vector2D.getProduct(v2, factor)));
+	v3.setDifference(v1, v2);
+	assert v3.equals(Vector2D.pointAt(v1, v2));
+	assert Math.abs(v1.distanceSquared(v2) - v3.getLength() * v3.getLength()) < comparisonPrecision;
+	assert Math.abs(v3.getAngleRadians() - v3.getAngle().getRadians() + (v3.getY() < 0 ? 2 * Math.PI : 0)) < comparisonPrecision;
+
+	v3.normalizeToLength(testLength);
+	Vector2D expected = Vector2D.pointAt(v1, v2);
+	expected.setLength(testLength);
+	assert Math.abs(v3.getX() - expected.getX()) < comparisonPrecision && Math.abs(v3.getY() - expected.getY()) < comparisonPrecision;
+	v3.set(0, 0);
+	v3.normalizeToLength(testLength);
+	assert v3.equals(new Vector2D());
+
+	benchmarkSetLength(testLength, comparisonPrecision);
+    }
+
+    private static void benchmarkSetLength(final double length, final double comparisonPrecision) {
+	final int vectorCount = 1000000;
+	final int runs = 5;
+	final double nanosInMilli = 1.0e6;
+	Random rnd = new Random(1);
+	double[] xs = new double[vectorCount];
+	double[] ys = new double[vectorCount];
+	for (int i = 0; i < vectorCount; i++) {
+	    xs[i] = (rnd.nextDouble() - 0.5) * length;
+	    ys[i] = (rnd.nextDouble() - 0.5) * length;
+	}
+
+	Vector2D vector = new Vector2D();
+	Vector2D expected = new Vector2D();
+	for (int i = 0; i < vectorCount; i++) {
+	    vector.set(xs[i], ys[i]);
+	    vector.setLength(length);
+	    expected.set(xs[i], ys[i]);
+	    setLengthByAngle(expected, length);
+	    assert Math.abs(vector.getX() - expected.getX()) < comparisonPrecision &&
+		   Math.abs(vector.getY() - expected.getY()) < comparisonPrecision;
+	    assert Math.abs(vector.getLength() - Math.sqrt(Math.pow(vector.getX(), 2) + Math.pow(vector.getY(), 2))) < comparisonPrecision;
+	}
+
+	for (int run = 0; run < runs; run++) {
+	    double angleSum = 0;
+	    long start = System.nanoTime();
+	    for (int i = 0; i < vectorCount; i++) {
+		vector.set(xs[i], ys[i]);
+		setLengthByAngle(vector, length);
+		angleSum += vector.getX();
+	    }
+	    long angleTime = System.nanoTime() - start;
+
+	    double scaleSum = 0;
+	    start = System.nanoTime();
+	    for (int i = 0; i < vectorCount; i++) {
+		vector.set(xs[i], ys[i]);
+		vector.setLength(length);
+		scaleSum += vector.getX();
+	    }
+	    long scaleTime = System.nanoTime() - start;
+
+	    System.out.printf("%d setLength: through the angle %.2f ms, scaling %.2f ms (sums %.1f %.1f)%n", vectorCount,
+			      angleTime / nanosInMilli, scaleTime / nanosInMilli, angleSum, scaleSum);
+	}
+    }
+
+    /**
+     * The old setLength, which finds the angle and builds the vector again from it.
+     */
+    private static void setLengthByAngle(final Vector2D vector, final double length) {
+	double radians = vector.getAngle().getRadians();
+	if (vector.getX() != 0) {
+	    vector.setX(Math.cos(radians) * length);
+	}
+	if (vector.getY() != 0) {
+	    vector.setY(Math.sin(radians) * length);
+	}
+    }
+}
@@ -0,0 +1,53 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Random;
+
+/**
+ * Tests for the AabbTree class, comparing queries against testing every box.
+ */
+public class AabbTreeTest
+{
+    public static void main(String[] args) {
+	final int boxCount = 200;
+	final double worldSide = 2000;
+	final double maxBoxSize = 300;
+	final int queries = 1000;
+	Random rnd = new Random(1);
+
+	double[] boxMinX = new double[boxCount];
+	double[] boxMinY = new double[boxCount];
+	double[] boxMaxX = new double[boxCount];
+	double[] boxMaxY = new double[boxCount];
+	for (int i = 0; i < boxCount; i++) {
+	    boxMinX[i] = rnd.nextDouble() * worldSide;
+	    boxMinY[i] = rnd.nextDouble() * worldSide;
+	    boxMaxX[i] = boxMinX[i] + rnd.nextDouble() * maxBoxSize;
+	    boxMaxY[i] = boxMinY[i] + rnd.nextDouble() * maxBoxSize;
+	}
+	AabbTree tree = new AabbTree(boxMinX, boxMinY, boxMaxX, boxMaxY);
+
+	IntList found = new IntList();
+	for (int q = 0; q < queries; q++) {
+	    double x = rnd.nextDouble() * worldSide;
+	    double y = rnd.nextDouble() * worldSide;
+	    double side = rnd.nextDouble() * maxBoxSize;
+
+	    found.clear();
+	    tree.query(x, y, x + side, y + side, found);
+	    found.sort();
+
+	    int expected = 0;
+	    for (int i = 0; i < boxCount; i++) {
+		if (boxMinX[i] <= x + side && x <= boxMaxX[i] && boxMinY[i] <= y + side && y <= boxMaxY[i]) {
+		    assert found.get(expected) == i;
+		    expected++;
+		}
+	    }
+	    assert found.size() == expected;
+	}
+
+	found.clear();
+	new AabbTree(new double[0], new double[0], new double[0], new double[0]).query(0, 0, worldSide, worldSide, found);
+	assert found.size() == 0;
+    }
+}
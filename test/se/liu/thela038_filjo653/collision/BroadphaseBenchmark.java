@@ -0,0 +1,64 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Random;
+
+/**
+ * Benchmark for the broadphases compared to testing every pair. The world grows with the number of items so that the density stays
+ * the same, which is what happens when a wave spreads out over the map. The brute force broadphase is left out since it returns
+ * every pair, and the boxes are instead tested directly.
+ */
+public class BroadphaseBenchmark
+{
+    public static void main(String[] args) {
+	final int[] itemCounts = { 100, 1000, 10000 };
+	final double itemsPerSquarePixel = 1 / 4000.0;
+	final double maxItemSize = 60;
+	final int runs = 5;
+	final double nanosInMilli = 1.0e6;
+	Random rnd = new Random(1);
+
+	for (int itemCount : itemCounts) {
+	    double worldSide = Math.sqrt(itemCount / itemsPerSquarePixel);
+	    double[][] boxes = new double[itemCount][];
+	    for (int i = 0; i < itemCount; i++) {
+		double x = rnd.nextDouble() * worldSide;
+		double y = rnd.nextDouble() * worldSide;
+		boxes[i] = new double[] { x, y, x + rnd.nextDouble() * maxItemSize, y + rnd.nextDouble() * maxItemSize };
+	    }
+
+	    long bruteTime = Long.MAX_VALUE;
+	    int brutePairs = 0;
+	    for (int run = 0; run < runs; run++) {
+		long start = System.nanoTime();
+		brutePairs = 0;
+		for (int i = 0; i < itemCount - 1; i++) {
+		    for (int j = i + 1; j < itemCount; j++) {
+			if (boxes[i][0] <= boxes[j][2] && boxes[j][0] <= boxes[i][2] && boxes[i][1] <= boxes[j][3] &&
+			    boxes[j][1] <= boxes[i][3]) {
+			    brutePairs++;
+			}
+		    }
+		}
+		bruteTime = Math.min(bruteTime, System.nanoTime() - start);
+	    }
+	    System.out.printf("%6d items: every pair %9.3f ms, %d pairs%n", itemCount, bruteTime / nanosInMilli, brutePairs);
+
+	    for (BroadphaseType type : new BroadphaseType[] { BroadphaseType.SPATIAL_HASH, BroadphaseType.SWEEP_AND_PRUNE }) {
+		Broadphase broadphase = type.create();
+		PairBuffer pairs = new PairBuffer();
+		long time = Long.MAX_VALUE;
+		for (int run = 0; run < runs; run++) {
+		    long start = System.nanoTime();
+		    broadphase.clear();
+		    for (double[] box : boxes) {
+			broadphase.insert(box[0], box[1], box[2], box[3]);
+		    }
+		    broadphase.findPairs(pairs);
+		    time = Math.min(time, System.nanoTime() - start);
+		}
+		assert pairs.size() == brutePairs;
+		System.out.printf("%6d items: %-15s %9.3f ms%n", itemCount, type, time / nanosInMilli);
+	    }
+	}
+    }
+}
@@ -0,0 +1,192 @@
+package se.liu.thela038_filjo653.collision;
+
+import se.liu.thela038_filjo653.Vector2D;
+
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+/**
+ * Tests for the CollisionShape class. The overlap tests are compared against intersecting Areas. Areas approximate ellipses with
+ * curves, so results are only required to match when the answer does not change if the shapes are made slightly larger or smaller.
+ */
+public class CollisionShapeTest
+{
+    public static void main(String[] args) {
+	// Touching shapes do not overlap
+	CollisionShape a = new CollisionShape();
+	CollisionShape b = new CollisionShape();
+	a.setRectangle(0, 0, 10, 10);
+	b.setRectangle(10, 0, 10, 10);
+	assert !a.intersects(b);
+	b.setEllipse(10, 0, 10, 10);
+	assert !a.intersects(b);
+	a.setEllipse(0, 0, 10, 10);
+	assert !a.intersects(b);
+
+	// Empty shapes never overlap
+	b.setRectangle(5, 5, 0, 10);
+	assert !a.intersects(b);
+
+	// Rectangle corner close to, but outside, a circle
+	a.setEllipse(0, 0, 10, 10);
+	b.setRectangle(9, 9, 10, 10);
+	assert !a.intersects(b);
+	assert !b.intersects(a);
+
+	// Shape inside another shape
+	a.setEllipse(0, 0, 100, 40);
+	b.setEllipse(40, 15, 10, 5);
+	assert a.intersects(b);
+	assert b.intersects(a);
+
+	final int testCount = 100000;
+	final double worldSide = 100;
+	final double maxSize = 60;
+	final double tolerance = 0.01;
+	Random rnd = new Random(1);
+	CollisionShape grown = new CollisionShape();
+	CollisionShape shrunk = new CollisionShape();
+	int mismatches = 0;
+
+	for (int i = 0; i < testCount; i++) {
+	    randomShape(a, rnd, worldSide, maxSize);
+	    randomShape(b, rnd, worldSide, maxSize);
+
+	    Area area = toArea(a);
+	    area.intersect(toArea(b));
+	    boolean expected = !area.isEmpty();
+	    boolean result = a.intersects(b);
+	    assert result == b.intersects(a);
+
+	    if (result != expected) {
+		grown.set(b.getType(), b.getMinX() - tolerance, b.getMinY() - tolerance, b.getWidth() + 2 * tolerance,
+			  b.getHeight() + 2 * tolerance);
+		shrunk.set(b.getType(), b.getMinX() + tolerance, b.getMinY() + tolerance, b.getWidth() - 2 * tolerance,
+			   b.getHeight() - 2 * tolerance);
+		assert a.intersects(grown) != a.intersects(shrunk) : "Shapes " + a + " and " + b + " give the wrong result";
+		mismatches++;
+	    }
+	}
+
+	final double maxMismatchRate = 0.001;
+	assert mismatches < testCount * maxMismatchRate;
+
+	testSweep(rnd, worldSide, maxSize);
+	testSeparation(rnd, worldSide, maxSize);
+    }
+
+    /**
+     * Tests for findSeparation. After the movement the shapes must not overlap, except for ellipses with different proportions where the
+     * movement is not exact.
+     */
+    private static void testSeparation(final Random rnd, final double worldSide, final double maxSize) {
+	CollisionShape moving = new CollisionShape();
+	CollisionShape obstacle = new CollisionShape();
+	Vector2D separation = new Vector2D();
+
+	// A circle pushed into the top of a wide rectangle only moves up, keeping any movement along the side
+	moving.setEllipse(50, 95, 20, 20);
+	obstacle.setRectangle(0, 100, 200, 50);
+	assert moving.findSeparation(obstacle, separation);
+	assert separation.getX() == 0 && Math.abs(separation.getY() + 15) < 1.0e-9 : separation;
+
+	// Shapes that do not overlap leave the result as it was
+	obstacle.setRectangle(0, 200, 200, 50);
+	assert !moving.findSeparation(obstacle, separation);
+	assert separation.getX() == 0 && Math.abs(separation.getY() + 15) < 1.0e-9;
+
+	final int testCount = 100000;
+	// The movement is made slightly longer so that rounding does not leave the shapes overlapping
+	final double margin = 1.0e-6;
+	CollisionShape moved = new CollisionShape();
+	for (int i = 0; i < testCount; i++) {
+	    randomShape(moving, rnd, worldSide, maxSize);
+	    randomShape(obstacle, rnd, worldSide, maxSize);
+	    if (!moving.findSeparation(obstacle, separation)) {
+		assert !moving.intersects(obstacle);
+		continue;
+	    }
+
+	    double length = separation.getLength();
+	    assert length > 0 && length <= Math.hypot(moving.getWidth() + obstacle.getWidth(), moving.getHeight() + obstacle.getHeight()) :
+		    moving + " " + obstacle;
+	    double scale = 1 + margin / length;
+	    moved.set(moving.getType(), moving.getMinX() + separation.getX() * scale, moving.getMinY() + separation.getY() * scale,
+		      moving.getWidth(), moving.getHeight());
+	    boolean exact = moving.getType() != obstacle.getType() || moving.getType() == CollisionShape.Type.RECTANGLE ||
+			    (moving.getWidth() == moving.getHeight() && obstacle.getWidth() == obstacle.getHeight());
+	    assert !exact || !moved.intersects(obstacle) : moving + " moved by " + separation + " still overlaps " + obstacle;
+	}
+    }
+
+    /**
+     * Tests for sweep. A small shape that passes through another shape in one step is found by sweep but not by intersects. Moving
+     * rectangles are compared against testing many positions along the movement.
+     */
+    private static void testSweep(final Random rnd, final double worldSide, final double maxSize) {
+	CollisionShape target = new CollisionShape();
+	CollisionShape bullet = new CollisionShape();
+
+	// Passes through in one step
+	target.setEllipse(100, 100, 40, 40);
+	bullet.setRectangle(200, 118, 4, 4);
+	assert !target.intersects(bullet);
+	double time = target.sweep(bullet, 200, 0);
+	assert time > 0.4 && time < 0.5;
+	target.setRectangle(100, 100, 40, 40);
+	time = target.sweep(bullet, 200, 0);
+	assert time > 0.4 && time < 0.5;
+
+	// Moves away, and passes just beside
+	assert target.sweep(bullet, -50, 0) == CollisionShape.NO_CONTACT;
+	bullet.setRectangle(200, 140, 4, 4);
+	assert target.sweep(bullet, 200, 0) == CollisionShape.NO_CONTACT;
+
+	final int testCount = 10000;
+	final int steps = 1000;
+	final double maxDistance = 200;
+	CollisionShape moved = new CollisionShape();
+	for (int i = 0; i < testCount; i++) {
+	    target.setRectangle(rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, 1 + rnd.nextDouble() * maxSize,
+				1 + rnd.nextDouble() * maxSize);
+	    bullet.setRectangle(rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, 1 + rnd.nextDouble() * maxSize,
+				1 + rnd.nextDouble() * maxSize);
+	    double deltaX = (rnd.nextDouble() - 0.5) * maxDistance;
+	    double deltaY = (rnd.nextDouble() - 0.5) * maxDistance;
+	    time = target.sweep(bullet, deltaX, deltaY);
+
+	    double firstHit = CollisionShape.NO_CONTACT;
+	    for (int step = 0; step <= steps && firstHit == CollisionShape.NO_CONTACT; step++) {
+		double t = (double) step / steps;
+		moved.setRectangle(bullet.getMinX() - deltaX * (1 - t), bullet.getMinY() - deltaY * (1 - t), bullet.getWidth(),
+				   bullet.getHeight());
+		if (target.intersects(moved)) {
+		    firstHit = t;
+		}
+	    }
+	    // A hit that lasts less than a step can be missed by the steps
+	    assert firstHit == CollisionShape.NO_CONTACT || (time <= firstHit && firstHit - time <= 1.0 / steps) :
+		    target + " swept by " + bullet;
+	}
+    }
+
+    /**
+     * Creates an Area with the same shape. Areas are slow to intersect, so they are only used to check the results of intersects.
+     */
+    private static Area toArea(final CollisionShape shape) {
+	if (shape.getType() == CollisionShape.Type.RECTANGLE) {
+	    return new Area(new Rectangle2D.Double(shape.getMinX(), shape.getMinY(), shape.getWidth(), shape.getHeight()));
+	}
+	return new Area(new Ellipse2D.Double(shape.getMinX(), shape.getMinY(), shape.getWidth(), shape.getHeight()));
+    }
+
+    private static void randomShape(final CollisionShape shape, final Random rnd, final double worldSide, final double maxSize) {
+	final double circleProbability = 0.3;
+	double width = 1 + rnd.nextDouble() * maxSize;
+	double height = rnd.nextDouble() < circleProbability ? width : 1 + rnd.nextDouble() * maxSize;
+	CollisionShape.Type type = rnd.nextBoolean() ? CollisionShape.Type.RECTANGLE : CollisionShape.Type.ELLIPSE;
+	shape.set(type, rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, width, height);
+    }
+}
@@ -0,0 +1,52 @@
+package se.liu.thela038_filjo653.collision;
+
+/**
+ * Tests for the ContactCache class.
+ */
+public class ContactCacheTest
+{
+    public static void main(String[] args) {
+	ContactCache cache = new ContactCache();
+	assert !cache.add(1, 2);
+	assert !cache.add(5, 3);
+	cache.endTick();
+	assert cache.getEndedCount() == 0;
+
+	assert cache.add(2, 1);
+	assert !cache.add(4, 1);
+	cache.endTick();
+	assert cache.getEndedCount() == 1;
+	assert cache.getEndedFirst(0) == 3 && cache.getEndedSecond(0) == 5;
+
+	cache.endTick();
+	assert cache.getEndedCount() == 2;
+	assert cache.getEndedFirst(0) == 1 && cache.getEndedSecond(0) == 2;
+	assert cache.getEndedFirst(1) == 1 && cache.getEndedSecond(1) == 4;
+
+	final int manyContacts = 1000;
+	for (int i = 0; i < manyContacts; i++) {
+	    assert !cache.add(i, Integer.MAX_VALUE - i);
+	}
+	cache.endTick();
+	for (int i = 0; i < manyContacts; i += 2) {
+	    assert cache.add(Integer.MAX_VALUE - i, i);
+	}
+	cache.endTick();
+	assert cache.getEndedCount() == manyContacts / 2;
+
+	// Contacts of removed items end right away, and the other contacts are still found
+	assert !cache.add(1, 2);
+	assert !cache.add(2, 3);
+	assert !cache.add(4, 5);
+	cache.endTick();
+	IntSet removed = new IntSet();
+	removed.add(2);
+	cache.endContactsOf(removed);
+	assert cache.getEndedCount() == 2;
+	assert cache.getEndedFirst(0) == 1 && cache.getEndedSecond(0) == 2;
+	assert cache.getEndedFirst(1) == 2 && cache.getEndedSecond(1) == 3;
+	assert cache.add(5, 4);
+	cache.endTick();
+	assert cache.getEndedCount() == 0;
+    }
+}
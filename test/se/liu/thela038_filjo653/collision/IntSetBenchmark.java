@@ -0,0 +1,105 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Random;
+
+/**
+ * Tests for the IntSet class, and a comparison with looking through an IntList, which is what the bullets used before. Each round adds
+ * a number of handles, like a bullet hitting that many entities, and then checks every handle again, like the contacts that stay.
+ */
+public class IntSetBenchmark
+{
+    public static void main(String[] args) {
+	test();
+
+	final int[] hitCounts = { 3, 30, 300 };
+	final int checksPerHit = 20;
+	final int rounds = 20000;
+	final double nanosInMilli = 1.0e6;
+	Random rnd = new Random(1);
+	IntSet set = new IntSet();
+	IntList list = new IntList();
+	for (int warmup = 0; warmup < 2; warmup++) {
+	    for (int hitCount : hitCounts) {
+		int[] handles = new int[hitCount];
+		for (int i = 0; i < hitCount; i++) {
+		    handles[i] = rnd.nextInt(Integer.MAX_VALUE);
+		}
+
+		long found = 0;
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+		    list.clear();
+		    for (int handle : handles) {
+			if (!contains(list, handle)) {
+			    list.add(handle);
+			}
+		    }
+		    for (int check = 0; check < checksPerHit; check++) {
+			for (int handle : handles) {
+			    found += contains(list, handle) ? 1 : 0;
+			}
+		    }
+		}
+		long listTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+		    set.clear();
+		    for (int handle : handles) {
+			set.add(handle);
+		    }
+		    for (int check = 0; check < checksPerHit; check++) {
+			for (int handle : handles) {
+			    found += set.contains(handle) ? 1 : 0;
+			}
+		    }
+		}
+		long setTime = System.nanoTime() - start;
+
+		assert found == 2L * rounds * checksPerHit * hitCount;
+		if (warmup > 0) {
+		    System.out.printf("%3d hits: IntList %7.2f ms, IntSet %7.2f ms%n", hitCount, listTime / nanosInMilli, setTime / nanosInMilli);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Checks if the list contains a value, by going through every value.
+     */
+    private static boolean contains(final IntList list, final int value) {
+	for (int i = 0; i < list.size(); i++) {
+	    if (list.get(i) == value) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    private static void test() {
+	// Marks empty slots inside the set, but must work like any other value
+	final int empty = Integer.MIN_VALUE;
+	IntSet set = new IntSet();
+	assert set.add(5);
+	assert !set.add(5);
+	assert set.contains(5) && !set.contains(6);
+	assert set.add(empty) && set.contains(empty) && !set.add(empty);
+	assert set.add(-1) && set.add(0);
+	assert set.size() == 4;
+
+	// Many values make the set grow several times
+	final int manyValues = 1000;
+	for (int i = 0; i < manyValues; i++) {
+	    set.add(i * 7);
+	}
+	for (int i = 0; i < manyValues; i++) {
+	    assert set.contains(i * 7);
+	    assert !set.contains(i * 7 + 1);
+	}
+	assert set.contains(5) && set.contains(empty) && set.contains(-1);
+
+	set.clear();
+	assert set.size() == 0 && !set.contains(0) && !set.contains(empty);
+	assert set.add(0);
+    }
+}
@@ -0,0 +1,58 @@
+package se.liu.thela038_filjo653.collision;
+
+import java.util.Random;
+
+/**
+ * Benchmark for testing pairs on different numbers of threads. The results are compared against testing the pairs on one thread,
+ * and must be exactly the same. Ellipses are used since they are the slowest shapes to test.
+ */
+public class ParallelNarrowphaseBenchmark
+{
+    public static void main(String[] args) {
+	final int shapeCount = 2000;
+	final int pairCount = 200000;
+	final double worldSide = 400;
+	final double maxSize = 60;
+	final int runs = 10;
+	final double nanosInMilli = 1.0e6;
+	Random rnd = new Random(1);
+
+	ShapeBuffer shapes = new ShapeBuffer();
+	for (int i = 0; i < shapeCount; i++) {
+	    CollisionShape shape = new CollisionShape();
+	    shape.setEllipse(rnd.nextDouble() * worldSide, rnd.nextDouble() * worldSide, 1 + rnd.nextDouble() * maxSize,
+			     1 + rnd.nextDouble() * maxSize);
+	    shapes.add(shape, 0);
+	}
+	PairBuffer pairs = new PairBuffer();
+	for (int i = 0; i < pairCount; i++) {
+	    pairs.add(rnd.nextInt(shapeCount), rnd.nextInt(shapeCount));
+	}
+
+	boolean[] expected = new boolean[pairCount];
+	for (int i = 0; i < pairCount; i++) {
+	    expected[i] = shapes.get(pairs.getFirst(i)).intersects(shapes.get(pairs.getSecond(i)));
+	}
+
+	long singleThreadTime = 0;
+	int maxThreads = Runtime.getRuntime().availableProcessors();
+	for (int threads = 1; threads <= maxThreads; threads *= 2) {
+	    ParallelNarrowphase narrowphase = new ParallelNarrowphase(threads);
+	    long time = Long.MAX_VALUE;
+	    for (int run = 0; run < runs; run++) {
+		long start = System.nanoTime();
+		narrowphase.test(shapes, shapes, pairs);
+		time = Math.min(time, System.nanoTime() - start);
+	    }
+	    for (int i = 0; i < pairCount; i++) {
+		assert narrowphase.overlaps(i) == expected[i] : i;
+	    }
+
+	    if (threads == 1) {
+		singleThreadTime = time;
+	    }
+	    System.out.printf("%2d threads: %8.3f ms, speedup %.2f%n", threads, time / nanosInMilli, (double) singleThreadTime / time);
+	    narrowphase.shutdown();
+	}
+    }
+}
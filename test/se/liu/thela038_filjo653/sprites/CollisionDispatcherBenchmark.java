@@ -0,0 +1,210 @@
+package se.liu.thela038_filjo653.sprites;
+
+import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.collision.CollisionMatrix;
+import se.liu.thela038_filjo653.resources.AudioLoader;
+import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.sprites.collectables.CHealth;
+import se.liu.thela038_filjo653.sprites.collectables.Collectable;
+import se.liu.thela038_filjo653.weapons.WeaponType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests that the table calls the same collide methods as the switch on the collision type that Entity.onCollide used before the table,
+ * and measures the time of a collision through both.
+ */
+public class CollisionDispatcherBenchmark
+{
+    public static void main(String[] args) throws IOException {
+	ImageLoader imageLoader = new ImageLoader();
+	imageLoader.loadImages();
+	AudioLoader audioLoader = new AudioLoader();
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	Map<CollisionType, Entity> others = createOthers(entityHandler, imageLoader, audioLoader);
+
+	List<String> expected = new ArrayList<>();
+	List<String> actual = new ArrayList<>();
+	CollisionMatrix matrix = CollisionMatrix.load();
+	CollisionDispatcher allowAll = new CollisionDispatcher(CollisionMatrix.createAllowAll());
+	CollisionDispatcher dispatcher = new CollisionDispatcher(matrix);
+	for (CollisionType type : CollisionType.values()) {
+	    for (Entity other : others.values()) {
+		switchCollide(createRecorder(type, expected), other);
+
+		// Without skipped pairs the table must give exactly the same calls, in the same order
+		allowAll.respond(createRecorder(type, actual), other);
+		assert actual.equals(expected) : type + " and " + other.getCollisionType() + ": " + actual + " != " + expected;
+		actual.clear();
+
+		// The pairs that are skipped must not call anything, the others must give the same calls
+		dispatcher.respond(createRecorder(type, actual), other);
+		if (matrix.reactsTo(type, other.getCollisionType())) {
+		    assert actual.equals(expected) : type + " and " + other.getCollisionType() + ": " + actual + " != " + expected;
+		} else {
+		    assert actual.isEmpty() : type + " and " + other.getCollisionType() + ": " + actual;
+		}
+		actual.clear();
+		expected.clear();
+	    }
+	}
+
+	benchmark(others, dispatcher);
+    }
+
+    private static Map<CollisionType, Entity> createOthers(EntityHandler entityHandler, ImageLoader imageLoader,
+							   AudioLoader audioLoader)
+    {
+	Map<CollisionType, Entity> others = new EnumMap<>(CollisionType.class);
+	Player player = new Player(new Vector2D(), 0, null, entityHandler, imageLoader, audioLoader);
+	others.put(CollisionType.ENTITY, new Entity(new Vector2D(), new Vector2D(1, 1), 0, null, null, entityHandler, null, null) {});
+	others.put(CollisionType.LIVING_ENTITY,
+		   new LivingEntity(new Vector2D(), new Vector2D(1, 1), 0, null, entityHandler, null, 1, 1, imageLoader, audioLoader) {});
+	others.put(CollisionType.BULLET, new Bullet(new Vector2D(), 0, null, entityHandler, 1, 1, player, imageLoader, audioLoader));
+	others.put(CollisionType.PLAYER, player);
+	others.put(CollisionType.ENEMY,
+		   new Enemy(new Vector2D(), imageLoader.getZombieWalkerBase().get(0), 1, 1, player, WeaponType.MELEE, 1, 1, entityHandler,
+			     null, imageLoader, audioLoader));
+	others.put(CollisionType.WALL, new Wall(new Vector2D(), 0, entityHandler, null, new Vector2D(1, 1), false, imageLoader, audioLoader));
+	others.put(CollisionType.COLLECTABLE, new CHealth(new Vector2D(), entityHandler, null, 1, imageLoader, audioLoader));
+	for (Map.Entry<CollisionType, Entity> entry : others.entrySet()) {
+	    assert entry.getValue().getCollisionType() == entry.getKey();
+	}
+	return others;
+    }
+
+    /**
+     * Creates an entity of the given collision type that writes down every collide method that is called, and then does what an entity
+     * without overrides does.
+     */
+    private static Entity createRecorder(final CollisionType type, final List<String> calls) {
+	return new Entity(new Vector2D(), new Vector2D(1, 1), 0, null, null, null, null, null)
+	{
+	    {
+		setCollisionType(type);
+	    }
+
+	    @Override public void collideLivingEntity(final LivingEntity entity) {
+		calls.add("collideLivingEntity");
+		super.collideLivingEntity(entity);
+	    }
+
+	    @Override public void collideWall(final Wall entity) {
+		calls.add("collideWall");
+		super.collideWall(entity);
+	    }
+
+	    @Override public void collideBullet(final Bullet entity) {
+		calls.add("collideBullet");
+		super.collideBullet(entity);
+	    }
+
+	    @Override public void collidePlayer(final Player entity) {
+		calls.add("collidePlayer");
+		super.collidePlayer(entity);
+	    }
+
+	    @Override public void collideEnemy(final Enemy entity) {
+		calls.add("collideEnemy");
+		super.collideEnemy(entity);
+	    }
+
+	    @Override public void collideCollectable(final Collectable entity) {
+		calls.add("collideCollectable");
+		super.collideCollectable(entity);
+	    }
+
+	    @Override public void baseCollide(final Entity entity) {
+		calls.add("baseCollide:" + entity.getCollisionType());
+	    }
+	};
+    }
+
+    /**
+     * The way Entity.onCollide let an entity react to a collision before the table.
+     */
+    private static void switchCollide(final Entity entity, final Entity other) {
+	switch (other.getCollisionType()) {
+	    case LIVING_ENTITY -> entity.collideLivingEntity((LivingEntity) other);
+	    case WALL -> entity.collideWall((Wall) other);
+	    case BULLET -> entity.collideBullet((Bullet) other);
+	    case PLAYER -> entity.collidePlayer((Player) other);
+	    case ENEMY -> entity.collideEnemy((Enemy) other);
+	    case COLLECTABLE -> entity.collideCollectable((Collectable) other);
+	    case ENTITY -> entity.baseCollide(other);
+	}
+    }
+
+    /**
+     * Measures the time of random collisions through the switch and through the table. The receivers count their calls instead of doing
+     * anything, so that only the dispatch is measured.
+     */
+    private static void benchmark(Map<CollisionType, Entity> others, CollisionDispatcher dispatcher) {
+	final int contactCount = 1 << 16;
+	final int rounds = 200;
+	Random rnd = new Random(1);
+	CollisionType[] types = CollisionType.values();
+	Entity[] otherEntities = others.values().toArray(new Entity[0]);
+	long[] counter = new long[1];
+
+	Entity[] receivers = new Entity[types.length];
+	for (CollisionType type : types) {
+	    receivers[type.ordinal()] = createCounter(type, counter);
+	}
+	Entity[] contactEntities = new Entity[contactCount];
+	Entity[] contactOthers = new Entity[contactCount];
+	for (int i = 0; i < contactCount; i++) {
+	    contactEntities[i] = receivers[rnd.nextInt(receivers.length)];
+	    contactOthers[i] = otherEntities[rnd.nextInt(otherEntities.length)];
+	}
+
+	for (int warmup = 0; warmup < 2; warmup++) {
+	    long switchTime = 0;
+	    long tableTime = 0;
+	    for (int round = 0; round < rounds; round++) {
+		long start = System.nanoTime();
+		for (int i = 0; i < contactCount; i++) {
+		    switchCollide(contactEntities[i], contactOthers[i]);
+		}
+		switchTime += System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < contactCount; i++) {
+		    dispatcher.respond(contactEntities[i], contactOthers[i]);
+		}
+		tableTime += System.nanoTime() - start;
+	    }
+	    double contacts = (double) contactCount * rounds;
+	    System.out.printf("switch: %.2f ns/contact, table: %.2f ns/contact (%d calls)%n", switchTime / contacts,
+			      tableTime / contacts, counter[0]);
+	}
+    }
+
+    private static Entity createCounter(final CollisionType type, final long[] counter) {
+	return new Entity(new Vector2D(), new Vector2D(1, 1), 0, null, null, null, null, null)
+	{
+	    {
+		setCollisionType(type);
+	    }
+
+	    @Override public void collideWall(final Wall entity) {
+		counter[0]++;
+	    }
+
+	    @Override public void collideBullet(final Bullet entity) {
+		counter[0]++;
+	    }
+
+	    @Override public void baseCollide(final Entity entity) {
+		counter[0]++;
+	    }
+	};
+    }
+}
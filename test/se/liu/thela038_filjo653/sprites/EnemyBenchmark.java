@@ -0,0 +1,64 @@
+package se.liu.thela038_filjo653.sprites;
+
+import se.liu.thela038_filjo653.time.DeltaTime;
+import se.liu.thela038_filjo653.Allocations;
+import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.resources.AudioLoader;
+import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.weapons.WeaponType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Counts the bytes allocated by the enemy AI, the attack angle and the movement of an entity, once the JIT compiler has warmed up.
+ * None of them should create any vectors, so the count should be close to 0.
+ */
+public class EnemyBenchmark
+{
+    public static void main(String[] args) {
+	final int ticks = 100000;
+	final int warmupTicks = 20000;
+	final long maxBytesPerTick = 1;
+	final long nanosPerTick = 7_000_000;
+
+	ImageLoader imageLoader = new ImageLoader();
+	try {
+	    imageLoader.loadImages();
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+	AudioLoader audioLoader = new AudioLoader();
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	Player player = new Player(new Vector2D(), 0, null, entityHandler, imageLoader, audioLoader);
+	// The target is too far away to attack, since attacks create bullets
+	final double distance = 10000;
+	Enemy enemy = new Enemy(new Vector2D(distance, distance), imageLoader.getZombieWalkerBase().get(0), 1, 1, player, WeaponType.MELEE,
+				1, 1, entityHandler, null, imageLoader, audioLoader);
+	// Entity.update is the movement that every entity runs before its own update
+	Entity mover = new Entity(new Vector2D(), new Vector2D(1, 1), 0, null, imageLoader, entityHandler, null, audioLoader) {};
+	mover.velocity.set(1, 2);
+	DeltaTime deltaTime = new DeltaTime(nanosPerTick);
+
+	double checksum = 0;
+	for (int tick = 0; tick < warmupTicks; tick++) {
+	    checksum += runTick(enemy, mover, deltaTime);
+	}
+	long before = Allocations.getAllocatedBytes();
+	for (int tick = 0; tick < ticks; tick++) {
+	    checksum += runTick(enemy, mover, deltaTime);
+	}
+	long bytes = Allocations.getAllocatedBytes() - before;
+
+	System.out.printf("%d bytes allocated in %d ticks (checksum %.1f)%n", bytes, ticks, checksum);
+	assert bytes <= maxBytesPerTick * ticks : bytes + " bytes allocated";
+    }
+
+    private static double runTick(Enemy enemy, Entity mover, DeltaTime deltaTime) {
+	enemy.ai();
+	mover.update(deltaTime);
+	return enemy.getAttackRotation() + enemy.getTargetDistance();
+    }
+}
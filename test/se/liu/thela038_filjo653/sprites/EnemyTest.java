@@ -0,0 +1,78 @@
+package se.liu.thela038_filjo653.sprites;
+
+import se.liu.thela038_filjo653.EntityHandler;
+import se.liu.thela038_filjo653.SpriteHandler;
+import se.liu.thela038_filjo653.Vector2D;
+import se.liu.thela038_filjo653.collision.BroadphaseType;
+import se.liu.thela038_filjo653.resources.AudioLoader;
+import se.liu.thela038_filjo653.resources.ImageLoader;
+import se.liu.thela038_filjo653.time.DeltaTime;
+import se.liu.thela038_filjo653.weapons.WeaponType;
+
+import java.io.IOException;
+
+/**
+ * Tests that an enemy is staggered while it is inside an explosion, and for a second after it gets out, also when the explosion ends
+ * while the enemy is still inside.
+ */
+public class EnemyTest
+{
+    private static final DeltaTime LONGER_THAN_STAGGER = new DeltaTime(2_000_000_000L);
+
+    public static void main(String[] args) throws IOException {
+	ImageLoader imageLoader = new ImageLoader();
+	imageLoader.loadImages();
+	AudioLoader audioLoader = new AudioLoader();
+	SpriteHandler spriteHandler = new SpriteHandler();
+	EntityHandler entityHandler = new EntityHandler(BroadphaseType.SPATIAL_HASH, 1);
+	Player player = new Player(new Vector2D(), 0, spriteHandler, entityHandler, imageLoader, audioLoader);
+	final int health = 1000;
+	Enemy enemy = new Enemy(new Vector2D(0, 0), imageLoader.getZombieWalkerBase().get(0), health, 1, player, WeaponType.MELEE, 1, 1,
+				entityHandler, spriteHandler, imageLoader, audioLoader);
+	entityHandler.add(enemy);
+	entityHandler.internalUpdate();
+
+	// Leaving the explosion
+	Explosion explosion = createExplosion(enemy, player, entityHandler, imageLoader, audioLoader, spriteHandler);
+	entityHandler.internalUpdate();
+	assert enemy.isStaggered();
+	enemy.staggerTimer.update(LONGER_THAN_STAGGER);
+	assert enemy.isStaggered();
+	enemy.position.setX(explosion.getSize().getX() * 2);
+	entityHandler.internalUpdate();
+	assert enemy.isStaggered();
+	enemy.staggerTimer.update(LONGER_THAN_STAGGER);
+	assert !enemy.isStaggered();
+	entityHandler.remove(explosion);
+	entityHandler.internalUpdate();
+
+	// The explosion ends while the enemy is inside it
+	explosion = createExplosion(enemy, player, entityHandler, imageLoader, audioLoader, spriteHandler);
+	entityHandler.internalUpdate();
+	enemy.staggerTimer.update(LONGER_THAN_STAGGER);
+	assert enemy.isStaggered();
+	entityHandler.remove(explosion);
+	entityHandler.internalUpdate();
+	assert enemy.isStaggered();
+	enemy.staggerTimer.update(LONGER_THAN_STAGGER);
+	assert !enemy.isStaggered();
+	// The removed explosion waits for its pool without keeping the player alive
+	assert explosion.owner == null;
+	entityHandler.shutdown();
+    }
+
+    private static Explosion createExplosion(Enemy enemy, Player owner, EntityHandler entityHandler, ImageLoader imageLoader,
+					     AudioLoader audioLoader, SpriteHandler spriteHandler)
+    {
+	Vector2D center = new Vector2D(enemy.getCollisionCenterX(), enemy.getCollisionCenterY());
+	Explosion explosion = new Explosion(center, 0, spriteHandler, entityHandler, 0, 0, owner, imageLoader, audioLoader)
+	{
+	    // Hits play sounds, which need an audio device
+	    @Override public void collideLivingEntity(final LivingEntity entity) {}
+	};
+	entityHandler.add(explosion);
+	// Added entities are only tested from the next tick
+	entityHandler.internalUpdate();
+	return explosion;
+    }
+}
@@ -0,0 +1,107 @@
+package se.liu.thela038_filjo653.sprites;
+
+import se.liu.thela038_filjo653.Vector2D;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for pushing living entities out of walls, compared to the old way of undoing the movement one axis at a time. A crowd of
+ * zombies walks diagonally into a row of cars, and each tick every zombie that overlaps a car is pushed out of it.
+ */
+public class LivingEntityBenchmark
+{
+    public static void main(String[] args) {
+	final int zombieCount = 1000;
+	final int carCount = 40;
+	final double carWidth = 120;
+	final double carHeight = 60;
+	final double carGap = 60;
+	final double zombieSide = 40;
+	final double rowY = 500;
+	final double stepX = 1;
+	final double stepY = 3;
+	final int ticks = 500;
+	final double nanosInMilli = 1.0e6;
+	final double maxOverlap = 0.01;
+	Random rnd = new Random(1);
+
+	List<Wall> cars = new ArrayList<>();
+	for (int i = 0; i < carCount; i++) {
+	    cars.add(new Wall(new Vector2D(i * (carWidth + carGap), rowY), 0, null, null, new Vector2D(carWidth, carHeight), false, null,
+			      null));
+	}
+	double rowWidth = carCount * (carWidth + carGap);
+
+	for (boolean byAxes : new boolean[] { true, false }) {
+	    LivingEntity[] zombies = new LivingEntity[zombieCount];
+	    Vector2D[] previous = new Vector2D[zombieCount];
+	    Vector2D[] starts = new Vector2D[zombieCount];
+	    for (int i = 0; i < zombieCount; i++) {
+		// Start just above the row, so that every zombie is pressed against it after a few ticks
+		Vector2D start = new Vector2D(rnd.nextDouble() * rowWidth, rowY - zombieSide - rnd.nextDouble() * zombieSide);
+		zombies[i] = new LivingEntity(start, new Vector2D(zombieSide, zombieSide), 0, null, null, null, 1, 1, null, null) {};
+		previous[i] = start.copy();
+		starts[i] = start.copy();
+	    }
+
+	    long contacts = 0;
+	    long start = System.nanoTime();
+	    for (int tick = 0; tick < ticks; tick++) {
+		for (int i = 0; i < zombieCount; i++) {
+		    LivingEntity zombie = zombies[i];
+		    previous[i].setTo(zombie.position);
+		    zombie.position.addX(stepX);
+		    zombie.position.addY(stepY);
+		    for (Wall car : cars) {
+			if (zombie.getCollisionShape().intersects(car.getCollisionShape())) {
+			    contacts++;
+			    if (byAxes) {
+				collideWallByAxes(zombie, previous[i], car);
+			    } else {
+				zombie.collideWall(car);
+			    }
+			}
+		    }
+		}
+	    }
+	    long time = System.nanoTime() - start;
+
+	    // Zombies that slide along the cars keep moving sideways, zombies that stick do not. Zombies that reach the end of the row have
+	    // nothing left to slide along, so the distance is measured up to there.
+	    double slid = 0;
+	    int overlapping = 0;
+	    Vector2D separation = new Vector2D();
+	    for (int i = 0; i < zombieCount; i++) {
+		slid += Math.min(zombies[i].position.getX(), rowWidth) - starts[i].getX();
+		for (Wall car : cars) {
+		    if (zombies[i].getCollisionShape().findSeparation(car.getCollisionShape(), separation) &&
+			separation.getLength() > maxOverlap) {
+			overlapping++;
+		    }
+		}
+	    }
+	    System.out.printf("%-12s %8.3f ms/tick, %d contacts, slid %6.1f of %6.1f px on average, %d overlapping%n",
+			      byAxes ? "axis revert" : "separation", time / nanosInMilli / ticks, contacts, slid / zombieCount, stepX * ticks,
+			      overlapping);
+	}
+    }
+
+    /**
+     * The old wall response, which moves back to the previous position and then tries to move along each axis.
+     */
+    private static void collideWallByAxes(final LivingEntity entity, final Vector2D previousPosition, final Wall wall) {
+	Vector2D originalPos = entity.position.copy();
+	entity.position.setTo(previousPosition);
+	entity.position.setY(originalPos.getY());
+	if (entity.getCollisionShape().intersects(wall.getCollisionShape())) {
+	    entity.position.setY(previousPosition.getY());
+	}
+	entity.position.setX(originalPos.getX());
+	if (entity.getCollisionShape().intersects(wall.getCollisionShape())) {
+	    entity.position.setX(previousPosition.getX());
+	}
+    }
+}